@@ -0,0 +1,205 @@
+package pong;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering onto a Canvas through a BufferStrategy: a render thread
+ * of its own draws each frame into the back buffer and shows it (a page flip
+ * where the pipeline supports it, otherwise an accelerated blit), with no
+ * repaint request, EDT round trip or Swing back buffer in between. Frames
+ * are paced to a frame rate; with page flipping show() also waits for the
+ * display.
+ *
+ * Accelerated surfaces can lose their contents at any time (display mode
+ * change, screen lock, device reset). Frames are drawn in the usual
+ * contentsRestored/contentsLost loops, and {@link #layer} hands out
+ * VolatileImage layers that callers redraw until they survive.
+ *
+ * Only worth it when the screen's images are hardware accelerated, see
+ * {@link #available()}; GamePanel keeps painting through Swing otherwise or
+ * if the strategy cannot be created.
+ */
+final class ActiveRenderer {
+
+    interface Scene {
+        /** Draws a whole frame of w x h pixels; the buffer holds garbage. */
+        void paintFrame(Graphics2D g, int w, int h);
+
+        /** The frame just drawn reached the screen at nanos (System.nanoTime). */
+        void presented(long nanos);
+    }
+
+    // below this the render thread stops parking and yields instead
+    private static final long SPIN_NANOS = 1_000_000L;
+
+    private final Canvas canvas = new Canvas();
+    private final int buffers;
+
+    private BufferStrategy strategy;
+    private boolean pageFlipping;
+    private volatile boolean failed;
+
+    private volatile long frameNanos;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    /** @param buffers 2 (double buffering) or 3 (triple) */
+    ActiveRenderer(int buffers) {
+        if (buffers < 2 || buffers > 3) throw new IllegalArgumentException("buffers must be 2 or 3: " + buffers);
+        this.buffers = buffers;
+        // all drawing happens in present(); key bindings stay on the panel
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(false);
+        canvas.setBackground(Color.BLACK);
+    }
+
+    /** True if the default screen accelerates images, i.e. not a software-only pipeline. */
+    static boolean available() {
+        if (GraphicsEnvironment.isHeadless()) return false;
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration();
+        return gc.getImageCapabilities().isAccelerated();
+    }
+
+    Canvas canvas() { return canvas; }
+
+    boolean isPageFlipping() { return pageFlipping; }
+
+    /** Set once the strategy could not be created; the caller should go back to Swing painting. */
+    boolean failed() { return failed; }
+
+    void setFrameRate(int fps) {
+        if (fps <= 0) throw new IllegalArgumentException("fps must be > 0: " + fps);
+        frameNanos = 1_000_000_000L / fps;
+    }
+
+    /**
+     * Starts the render thread: a frame of scene every 1/fps seconds until
+     * {@link #stop()}. If the buffer strategy cannot be created the thread
+     * runs onFailure and ends.
+     */
+    synchronized void start(Scene scene, int fps, Runnable onFailure) {
+        if (running) return;
+        setFrameRate(fps);
+        running = true;
+        Thread t = new Thread(() -> run(scene, onFailure), "render");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    private void run(Scene scene, Runnable onFailure) {
+        Thread self = Thread.currentThread();
+        long next = System.nanoTime();
+        while (running && thread == self) {
+            if (present(scene)) {
+                scene.presented(System.nanoTime());
+            } else if (failed) {
+                onFailure.run();
+                return;
+            }
+
+            long now = System.nanoTime();
+            next += frameNanos;
+            if (next < now) next = now; // fell behind (or blocked in show), don't burst
+            waitUntil(next);
+        }
+    }
+
+    private void waitUntil(long deadline) {
+        while (running) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) return;
+
+            if (left > SPIN_NANOS) LockSupport.parkNanos(left - SPIN_NANOS);
+            else Thread.yield();
+        }
+    }
+
+    /**
+     * Draws and shows one frame from the calling thread. Returns false if
+     * nothing was shown: the canvas is not on screen yet, or this renderer
+     * has {@link #failed()}.
+     */
+    boolean present(Scene scene) {
+        if (failed || !canvas.isDisplayable()) return false;
+        int w = canvas.getWidth();
+        int h = canvas.getHeight();
+        if (w <= 0 || h <= 0) return false;
+
+        try {
+            if (strategy == null) createStrategy();
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        scene.paintFrame(g, w, h);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+        } catch (IllegalStateException e) {
+            // the peer went away between the check and the draw (window closing)
+            strategy = null;
+            return false;
+        }
+
+        // X11 queues requests; without this the flip can land a frame late
+        Toolkit.getDefaultToolkit().sync();
+        return true;
+    }
+
+    private void createStrategy() {
+        GraphicsConfiguration gc = canvas.getGraphicsConfiguration();
+        if (gc != null && gc.getBufferCapabilities().isPageFlipping()) {
+            ImageCapabilities accelerated = new ImageCapabilities(true);
+            try {
+                canvas.createBufferStrategy(buffers, new BufferCapabilities(accelerated, accelerated,
+                        BufferCapabilities.FlipContents.UNDEFINED));
+                strategy = canvas.getBufferStrategy();
+                pageFlipping = true;
+                return;
+            } catch (AWTException e) {
+                // not in this window mode; the plain request below picks the best blit strategy
+            }
+        }
+        try {
+            canvas.createBufferStrategy(buffers);
+        } catch (RuntimeException e) {
+            failed = true;
+            throw new IllegalStateException("no buffer strategy", e);
+        }
+        strategy = canvas.getBufferStrategy();
+        pageFlipping = strategy.getCapabilities().isPageFlipping();
+    }
+
+    /**
+     * An accelerated layer of at least w x h for gc: img itself while it is
+     * still usable, otherwise a new one (grow-only, like the Swing path's
+     * images). Contents are undefined; draw the whole layer, then redraw
+     * while {@link VolatileImage#contentsLost()}.
+     */
+    static VolatileImage layer(VolatileImage img, GraphicsConfiguration gc, int w, int h) {
+        if (img != null && img.getWidth() >= w && img.getHeight() >= h
+                && img.validate(gc) != VolatileImage.IMAGE_INCOMPATIBLE) {
+            return img;
+        }
+        int iw = Math.max(w, img != null ? img.getWidth() : 0);
+        int ih = Math.max(h, img != null ? img.getHeight() : 0);
+        if (img != null) img.flush();
+        return gc.createCompatibleVolatileImage(iw, ih);
+    }
+}
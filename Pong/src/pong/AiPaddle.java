@@ -0,0 +1,115 @@
+package pong;
+
+/**
+ * CPU player for one paddle. Predicts where the ball will cross the paddle
+ * face in closed form: the straight-line flight is unfolded across the top
+ * and bottom walls, so a decision is O(1) and allocation-free no matter how
+ * many bounces are ahead.
+ *
+ * Difficulty comes from two knobs: the reaction time (the AI only re-reads
+ * the ball that often and keeps steering at its last plan in between) and
+ * the aim error. The error is one misjudgement per approach, scaled by the
+ * ball's flight time when the AI first sees it coming, and it sticks until
+ * the ball turns around: long shots are harder to read than short ones.
+ */
+public final class AiPaddle {
+
+    private static final double DEAD_ZONE = 4;
+
+    private final boolean left;
+    private final double reaction;
+    private final double error;
+    private final GameRandom rnd;
+
+    private double sincePlan;
+    private double target = Double.NaN;
+    private boolean approaching;
+    private double miss;
+
+    /**
+     * @param reaction seconds between looks at the ball
+     * @param error    aim error in px per second of ball flight (uniform, +-)
+     */
+    public AiPaddle(boolean left, double reaction, double error, GameRandom rnd) {
+        if (reaction < 0) throw new IllegalArgumentException("reaction must be >= 0: " + reaction);
+        if (error < 0) throw new IllegalArgumentException("error must be >= 0: " + error);
+        this.left = left;
+        this.reaction = reaction;
+        this.error = error;
+        this.rnd = rnd;
+        reset();
+    }
+
+    /** Presets: easy, normal, hard, perfect. */
+    public static AiPaddle level(String name, boolean left, GameRandom rnd) {
+        switch (name) {
+            case "easy": return new AiPaddle(left, 0.25, 110, rnd);
+            case "normal": return new AiPaddle(left, 0.15, 70, rnd);
+            case "hard": return new AiPaddle(left, 0.08, 35, rnd);
+            case "perfect": return new AiPaddle(left, 0, 0, rnd);
+            default: throw new IllegalArgumentException("unknown AI level: " + name);
+        }
+    }
+
+    public boolean isLeft() { return left; }
+
+    public double reaction() { return reaction; }
+
+    public double error() { return error; }
+
+    /** Forgets the current plan, e.g. for a new match. */
+    public void reset() {
+        sincePlan = Double.POSITIVE_INFINITY;
+        target = Double.NaN;
+        approaching = false;
+        miss = 0;
+    }
+
+    /** Input bits (PongSimulation.LEFT_* or RIGHT_*) for the next tick of dt. */
+    public int decide(PongState s, double dt) {
+        sincePlan += dt;
+        if (sincePlan >= reaction || Double.isNaN(target)) {
+            sincePlan = 0;
+            target = plan(s);
+        }
+
+        double paddleCenter = (left ? s.leftPaddleY : s.rightPaddleY) + PongSimulation.PADDLE_HEIGHT / 2.0;
+        double d = target - paddleCenter;
+        if (d < -DEAD_ZONE) return left ? PongSimulation.LEFT_UP : PongSimulation.RIGHT_UP;
+        if (d > DEAD_ZONE) return left ? PongSimulation.LEFT_DOWN : PongSimulation.RIGHT_DOWN;
+        return 0;
+    }
+
+    // Ball center y where the paddle should be, or the field center while the ball moves away.
+    private double plan(PongState s) {
+        double towards = left ? -s.vx : s.vx;
+        double face = left
+                ? PongSimulation.leftPaddleX() + PongSimulation.PADDLE_WIDTH
+                : PongSimulation.rightPaddleX(s.width) - PongSimulation.BALL_SIZE;
+        double t = towards > 0 ? (face - s.x) / s.vx : -1;
+        if (t < 0) {
+            // moving away or already past the face
+            approaching = false;
+            return s.height / 2.0;
+        }
+
+        if (!approaching) {
+            approaching = true;
+            miss = error > 0 ? rnd.nextDouble(-error, error) * t : 0;
+        }
+        double y = predictY(s.y, s.vy, t, s.height - PongSimulation.BALL_SIZE);
+        return y + PongSimulation.BALL_SIZE / 2.0 + miss;
+    }
+
+    /**
+     * Ball top after t seconds moving at vy between walls at 0 and range:
+     * the unbounded position folded back into [0, range] (a triangle wave).
+     */
+    static double predictY(double y, double vy, double t, double range) {
+        if (range <= 0) return 0;
+        double period = 2 * range;
+        double m = (y + vy * t) % period;
+        if (m < 0) m += period;
+        return m <= range ? m : period - m;
+    }
+}
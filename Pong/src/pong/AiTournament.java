@@ -0,0 +1,172 @@
+package pong;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Self-play tournament for tuning the AI offline: every (reaction, error)
+ * candidate on a grid plays a batch of headless matches against a fixed
+ * reference AI, sides alternating, on all cores. Reports each candidate's
+ * win rate, average rally length (paddle hits per point) and point length.
+ *
+ * {@code AiTournament [matchesPerCandidate] [pointsPerMatch]}; reference
+ * level with -Dpong.aiReference (default normal).
+ */
+public final class AiTournament {
+
+    static final double[] REACTIONS = { 0.0, 0.05, 0.10, 0.15, 0.20, 0.30 };
+    static final double[] ERRORS = { 0, 40, 80, 140, 200, 260 };
+
+    private static final int W = PongSimulation.FIELD_WIDTH, H = PongSimulation.FIELD_HEIGHT;
+
+    // matches per leaf task
+    private static final int BATCH = 64;
+
+    private final int matches;
+    private final int points;
+    private final double dt;
+    private final String reference;
+    private final long seed;
+
+    public AiTournament(int matchesPerCandidate, int pointsPerMatch, int tickHz, String reference, long seed) {
+        if (matchesPerCandidate <= 0) throw new IllegalArgumentException("matches must be > 0: " + matchesPerCandidate);
+        if (pointsPerMatch <= 0) throw new IllegalArgumentException("points must be > 0: " + pointsPerMatch);
+        if (tickHz <= 0) throw new IllegalArgumentException("tickHz must be > 0: " + tickHz);
+        AiPaddle.level(reference, true, new GameRandom(0)); // validates the name
+
+        this.matches = matchesPerCandidate;
+        this.points = pointsPerMatch;
+        this.dt = 1.0 / tickHz;
+        this.reference = reference;
+        this.seed = seed;
+    }
+
+    static int candidates() {
+        return REACTIONS.length * ERRORS.length;
+    }
+
+    /** Plays everything on the pool; results indexed by candidate. */
+    public Result run(ForkJoinPool pool) {
+        return pool.invoke(new Matches(0, (long) candidates() * matches));
+    }
+
+    /** Per candidate totals. */
+    public static final class Result {
+        final long[] wins = new long[candidates()];
+        final long[] played = new long[candidates()];
+        final long[] points = new long[candidates()];
+        final long[] hits = new long[candidates()];
+        final long[] ticks = new long[candidates()];
+
+        void add(Result o) {
+            for (int c = 0; c < wins.length; c++) {
+                wins[c] += o.wins[c];
+                played[c] += o.played[c];
+                points[c] += o.points[c];
+                hits[c] += o.hits[c];
+                ticks[c] += o.ticks[c];
+            }
+        }
+
+        public long totalMatches() {
+            long n = 0;
+            for (long p : played) n += p;
+            return n;
+        }
+    }
+
+    // Match i: candidate i / matches, its n-th game; its own seed so results don't depend on scheduling.
+    private final class Matches extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from, to;
+
+        Matches(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > BATCH) {
+                long mid = (from + to) >>> 1;
+                Matches a = new Matches(from, mid);
+                a.fork();
+                Result r = new Matches(mid, to).compute();
+                r.add(a.join());
+                return r;
+            }
+
+            Result r = new Result();
+            Referee ref = new Referee();
+            PongSimulation sim = new PongSimulation(0);
+            sim.setListener(ref);
+
+            for (long i = from; i < to; i++) {
+                int c = (int) (i / matches);
+                boolean candidateLeft = (i & 1) == 0;
+                GameRandom rnd = new GameRandom(GameRandom.mix64(seed + i));
+
+                AiPaddle cand = new AiPaddle(candidateLeft, REACTIONS[c / ERRORS.length], ERRORS[c % ERRORS.length], rnd.split());
+                AiPaddle other = AiPaddle.level(reference, !candidateLeft, rnd.split());
+                AiPaddle left = candidateLeft ? cand : other;
+                AiPaddle right = candidateLeft ? other : cand;
+
+                sim.newMatch(rnd.nextLong());
+                sim.resize(W, H);
+                PongState s = sim.state();
+                ref.hits = 0;
+
+                long ticks = 0;
+                // cap so two perfect players can't rally forever
+                long maxTicks = (long) (points * 120 / dt);
+                while (s.score1 < points && s.score2 < points && ticks < maxTicks) {
+                    sim.step(dt, left.decide(s, dt) | right.decide(s, dt));
+                    ticks++;
+                }
+
+                boolean candidateWon = candidateLeft ? s.score1 > s.score2 : s.score2 > s.score1;
+                if (candidateWon) r.wins[c]++;
+                r.played[c]++;
+                r.points[c] += s.score1 + s.score2;
+                r.hits[c] += ref.hits;
+                r.ticks[c] += ticks;
+            }
+            return r;
+        }
+    }
+
+    private static final class Referee implements PongSimulation.Listener {
+        long hits;
+
+        @Override
+        public void paddleHit(boolean left, double x, double y, double speed, double spin) {
+            hits++;
+        }
+    }
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int points = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int tickHz = Integer.getInteger("pong.tickHz", 60);
+        String reference = System.getProperty("pong.aiReference", "normal");
+
+        AiTournament t = new AiTournament(matches, points, tickHz, reference, Long.getLong("pong.seed", 1L));
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("%d candidates x %,d matches to %d vs '%s', %d threads%n",
+                candidates(), matches, points, reference, pool.getParallelism() + 1);
+
+        long start = System.nanoTime();
+        Result r = t.run(pool);
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("reaction  error   win%   rally  point(s)");
+        for (int c = 0; c < candidates(); c++) {
+            double pts = Math.max(1, r.points[c]);
+            System.out.printf("%7.2fs  %5.0f  %5.1f  %6.2f  %7.2f%n",
+                    REACTIONS[c / ERRORS.length], ERRORS[c % ERRORS.length],
+                    100.0 * r.wins[c] / r.played[c], r.hits[c] / pts, r.ticks[c] / pts / tickHz);
+        }
+        System.out.printf("%,d matches in %.1f s (%,.0f matches/s)%n", r.totalMatches(), secs, r.totalMatches() / secs);
+    }
+}
@@ -0,0 +1,90 @@
+package pong;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for {@link MatchServer}: one thread that plays both sides
+ * of every match. It only sees what a remote player would, the published
+ * positions, and answers with input bits, at its own tick rate.
+ *
+ * Bots follow the ball while it is in their half, aiming at a per-match
+ * offset along the paddle that changes now and then, so they miss
+ * sometimes and matches do end.
+ */
+public final class BotClient {
+
+    // bots aim anywhere within this distance of the paddle center
+    private static final int AIM_SPREAD = 70;
+    private static final int DEAD_ZONE = 6;
+
+    private final MatchServer server;
+    private final long tickNanos;
+    private final GameRandom rnd;
+    private final int[] aimLeft, aimRight;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public BotClient(MatchServer server, int tickHz, GameRandom rnd) {
+        if (tickHz <= 0) throw new IllegalArgumentException("tickHz must be > 0: " + tickHz);
+        this.server = server;
+        this.tickNanos = 1_000_000_000L / tickHz;
+        this.rnd = rnd;
+        aimLeft = new int[server.matches()];
+        aimRight = new int[server.matches()];
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "bot-client");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        while (running) {
+            playAll();
+            next += tickNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            else next = System.nanoTime();
+        }
+    }
+
+    private void playAll() {
+        int half = MatchServer.WIDTH / 2;
+        int center = PongSimulation.PADDLE_HEIGHT / 2 - PongSimulation.BALL_SIZE / 2;
+
+        for (int m = 0; m < aimLeft.length; m++) {
+            long p = server.position(m);
+            int bx = MatchServer.ballX(p);
+            int by = MatchServer.ballY(p);
+
+            // new aim point now and then
+            if (rnd.nextInt(0, 90) == 0) aimLeft[m] = rnd.nextInt(-AIM_SPREAD, AIM_SPREAD + 1);
+            if (rnd.nextInt(0, 90) == 0) aimRight[m] = rnd.nextInt(-AIM_SPREAD, AIM_SPREAD + 1);
+
+            int bits = 0;
+            if (bx < half) {
+                int d = by - (MatchServer.leftY(p) + center + aimLeft[m]);
+                if (d < -DEAD_ZONE) bits |= PongSimulation.LEFT_UP;
+                else if (d > DEAD_ZONE) bits |= PongSimulation.LEFT_DOWN;
+            } else {
+                int d = by - (MatchServer.rightY(p) + center + aimRight[m]);
+                if (d < -DEAD_ZONE) bits |= PongSimulation.RIGHT_UP;
+                else if (d > DEAD_ZONE) bits |= PongSimulation.RIGHT_DOWN;
+            }
+            server.inputs.lazySet(m, bits);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package pong;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * One frame of an offscreen export on its way through {@link FrameExport}:
+ * the tick snapshot and shooting stars the producer captured for it, the
+ * interpolation point, and the image a render worker paints. Allocated once
+ * per slot in the export pipeline and reused; after capture nothing writes to
+ * it until it comes back to the pool.
+ */
+final class ExportFrame {
+
+    // x, y, vx, vy, life, maxLife, length, thickness
+    static final int SHOOTING_FIELDS = 8;
+
+    final FrameSnapshot tick;
+    final BufferedImage image;
+
+    int index;            // frame number in the export
+    double time;          // seconds of play the frame shows
+    double alpha;         // between tick.prev (0) and tick.state (1)
+
+    double[] shooting = new double[SHOOTING_FIELDS * 8];
+    int shootingStars;
+
+    ExportFrame(FrameSnapshot tick, int width, int height) {
+        this.tick = tick;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    void addShootingStar(double x, double y, double vx, double vy, double life, double maxLife, double length,
+                         double thickness) {
+        int o = shootingStars * SHOOTING_FIELDS;
+        if (o + SHOOTING_FIELDS > shooting.length) shooting = Arrays.copyOf(shooting, shooting.length * 2);
+        shooting[o] = x;
+        shooting[o + 1] = y;
+        shooting[o + 2] = vx;
+        shooting[o + 3] = vy;
+        shooting[o + 4] = life;
+        shooting[o + 5] = maxLife;
+        shooting[o + 6] = length;
+        shooting[o + 7] = thickness;
+        shootingStars++;
+    }
+}
@@ -0,0 +1,246 @@
+package pong;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+
+/**
+ * Fixed-capacity particle store. Every particle is one slot across a set of
+ * primitive arrays, so emitting and updating never allocates.
+ *
+ * Slots are kept in emission order: {@link #update} compacts live particles
+ * towards the front in a single pass, which leaves the oldest particles at
+ * index 0. When the budget is exceeded the oldest ones are dropped first.
+ */
+public class FireTrail {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // longest life of a fire particle, seconds
+    static final double FIRE_MAX_LIFE = 0.35;
+
+    private static final AffineTransform IDENTITY = new AffineTransform();
+
+    private final int capacity;
+    private int budget;
+    private int count = 0;
+
+    // particle state, one slot per particle
+    final double[] x, y;
+    final double[] vx, vy;
+    final double[] life, maxLife;
+    final float[] size;
+    final byte[] type;
+    final byte[] tint;
+
+    private final ParticleSprites sprites;
+    private final GameRandom rnd;
+
+    public FireTrail() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FireTrail(int capacity) {
+        this(capacity, new GameRandom());
+    }
+
+    public FireTrail(int capacity, GameRandom rnd) {
+        this(capacity, rnd, new ParticleSprites());
+    }
+
+    private FireTrail(int capacity, GameRandom rnd, ParticleSprites sprites) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0: " + capacity);
+        this.capacity = capacity;
+        this.budget = capacity;
+        this.rnd = rnd;
+        this.sprites = sprites;
+
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        life = new double[capacity];
+        maxLife = new double[capacity];
+        size = new float[capacity];
+        type = new byte[capacity];
+        tint = new byte[capacity];
+    }
+
+    public int capacity() { return capacity; }
+
+    public int budget() { return budget; }
+
+    public int count() { return count; }
+
+    /** Hard limit of live particles (clamped to the capacity). Evicts the oldest if needed. */
+    public void setBudget(int budget) {
+        this.budget = Math.max(0, Math.min(capacity, budget));
+        if (count > this.budget) evictOldest(count - this.budget);
+    }
+
+    public void emitFire(double x, double y, double ballVx, double ballVy, int count) {
+        int n = reserve(count);
+        int start = this.count - n;
+
+        for (int i = start; i < start + n; i++) {
+            this.x[i] = x;
+            this.y[i] = y;
+            this.type[i] = Particle.FIRE;
+            this.tint[i] = ParticleSprites.TINT_FIRE;
+
+            double spread = Particle.FIRE_SPREAD;
+            vx[i] = (-ballVx * Particle.FIRE_BALL_INHERIT) + rnd.nextDouble(-spread, spread);
+            vy[i] = (-ballVy * Particle.FIRE_BALL_INHERIT) + rnd.nextDouble(-spread, spread);
+            maxLife[i] = rnd.nextDouble(0.18, FIRE_MAX_LIFE);
+            size[i] = (float) rnd.nextDouble(3.0, 7.0);
+            life[i] = maxLife[i];
+        }
+    }
+
+    public void emitExplosion(double x, double y, int count) {
+        int n = reserve(count);
+        int start = this.count - n;
+
+        for (int i = start; i < start + n; i++) {
+            this.x[i] = x;
+            this.y[i] = y;
+            this.type[i] = Particle.EXPLOSION;
+            // hot explosion color, fixed for the particle's lifetime
+            this.tint[i] = ParticleSprites.explosionTint(rnd.nextFloat(0.6f, 0.9f));
+
+            // BIG explosion
+            double angle = rnd.nextDouble(0, Math.PI * 2);
+            double speed = rnd.nextDouble(Particle.EXPLOSION_MIN_SPEED, Particle.EXPLOSION_MAX_SPEED);
+            vx[i] = Math.cos(angle) * speed * Particle.EXPLOSION_SPEED_SCALE;
+            vy[i] = Math.sin(angle) * speed * Particle.EXPLOSION_SPEED_SCALE;
+
+            maxLife[i] = rnd.nextDouble(0.20, 0.35);
+            size[i] = (float) rnd.nextDouble(8.0, 16.0);
+            life[i] = maxLife[i];
+        }
+    }
+
+    public void update(double dt) {
+        // per-step factors of the exact drag solution, so trails and bursts look the same at any tick rate
+        double fireDecay = Particle.decay(Particle.FIRE_DRAG, dt);
+        double fireTravel = Particle.travel(Particle.FIRE_DRAG, dt);
+        double burstDecay = Particle.decay(Particle.EXPLOSION_DRAG, dt);
+        double burstTravel = Particle.travel(Particle.EXPLOSION_DRAG, dt);
+        double rise = -Particle.FIRE_RISE;
+        int live = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (type[i] == Particle.FIRE) {
+                // vertical speed settles at the rise instead of 0
+                x[i] += vx[i] * fireTravel;
+                y[i] += (vy[i] - rise) * fireTravel + rise * dt;
+                vx[i] *= fireDecay;
+                vy[i] = rise + (vy[i] - rise) * fireDecay;
+            } else {
+                x[i] += vx[i] * burstTravel;
+                y[i] += vy[i] * burstTravel;
+                vx[i] *= burstDecay;
+                vy[i] *= burstDecay;
+            }
+
+            life[i] -= dt;
+            if (life[i] <= 0) continue;
+
+            // compact in order so index 0 stays the oldest particle
+            if (live != i) move(i, live);
+            live++;
+        }
+
+        count = live;
+    }
+
+    public void draw(Graphics2D g2) {
+        if (count == 0) return;
+        sprites.validate(g2);
+
+        // Under a scaling view transform every sprite would take Java2D's transformed-image path, which
+        // allocates per call; map the positions here and draw sprites of the scaled size in device space.
+        AffineTransform at = g2.getTransform();
+        boolean device = at.getShearX() == 0 && at.getShearY() == 0;
+        double sx = at.getScaleX(), sy = at.getScaleY(), tx = at.getTranslateX(), ty = at.getTranslateY();
+        if (device) g2.setTransform(IDENTITY);
+
+        for (int i = 0; i < count; i++) {
+            float a = Math.min(1f, (float) (life[i] / maxLife[i]));
+            float s = size[i] * (0.8f + 1.2f * a);
+            int variant = type[i] == Particle.FIRE ? ParticleSprites.SOLID : ParticleSprites.GLOW;
+            if (device) sprites.draw(g2, variant, tint[i], x[i], y[i], a, s, sx, sy, tx, ty);
+            else sprites.draw(g2, variant, tint[i], x[i], y[i], a, s);
+        }
+
+        if (device) g2.setTransform(at);
+    }
+
+    /** Same particles for the software backend: explosions get a soft halo like the GLOW sprite. */
+    public void raster(SoftwareRasterizer r) {
+        for (int i = 0; i < count; i++) {
+            float a = Math.min(1f, (float) (life[i] / maxLife[i]));
+            float s = size[i] * (0.8f + 1.2f * a);
+            int rgb = ParticleSprites.tintRgb(tint[i]);
+
+            double halo = type[i] == Particle.FIRE ? 0 : s * ParticleSprites.GLOW_EXTENT;
+            r.disc(x[i], y[i], s / 2, halo, rgb, ParticleSprites.LAYER_ALPHA * a, SoftwareRasterizer.BLEND_OVER);
+        }
+    }
+
+    /** An empty trail of the same capacity that draws with the same sprites, to hold {@link #copyFrom} copies. */
+    FireTrail renderCopy() {
+        return new FireTrail(capacity, rnd, sprites);
+    }
+
+    /** Replaces this trail's particles with the live ones of src, as far as drawing needs them (no velocities). */
+    void copyFrom(FireTrail src) {
+        int n = Math.min(src.count, capacity);
+        System.arraycopy(src.x, 0, x, 0, n);
+        System.arraycopy(src.y, 0, y, 0, n);
+        System.arraycopy(src.life, 0, life, 0, n);
+        System.arraycopy(src.maxLife, 0, maxLife, 0, n);
+        System.arraycopy(src.size, 0, size, 0, n);
+        System.arraycopy(src.type, 0, type, 0, n);
+        System.arraycopy(src.tint, 0, tint, 0, n);
+        count = n;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    // Makes room for up to n new particles at the end, evicting the oldest if over budget.
+    private int reserve(int n) {
+        n = Math.min(Math.max(0, n), budget);
+        int overflow = count + n - budget;
+        if (overflow > 0) evictOldest(overflow);
+        count += n;
+        return n;
+    }
+
+    private void evictOldest(int n) {
+        int keep = count - n;
+        System.arraycopy(x, n, x, 0, keep);
+        System.arraycopy(y, n, y, 0, keep);
+        System.arraycopy(vx, n, vx, 0, keep);
+        System.arraycopy(vy, n, vy, 0, keep);
+        System.arraycopy(life, n, life, 0, keep);
+        System.arraycopy(maxLife, n, maxLife, 0, keep);
+        System.arraycopy(size, n, size, 0, keep);
+        System.arraycopy(type, n, type, 0, keep);
+        System.arraycopy(tint, n, tint, 0, keep);
+        count = keep;
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        life[to] = life[from];
+        maxLife[to] = maxLife[from];
+        size[to] = size[from];
+        type[to] = type[from];
+        tint[to] = tint[from];
+    }
+}
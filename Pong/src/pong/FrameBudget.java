@@ -0,0 +1,353 @@
+package pong;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headless regression check for the frame budget: drives a GamePanel
+ * through scripted scenarios (AI against AI at a fixed seed, quality
+ * pinned) into an offscreen image, one tick and one paint per frame, and
+ * fails if the bytes allocated per tick or per paint, or the tick and
+ * paint time percentiles, go over their limits, or if any paint phase
+ * allocates more than its own limit. Allocations are counted
+ * per thread with com.sun.management.ThreadMXBean, so everything runs on
+ * the calling thread. A failure names the phase (see the F3 overlay) that
+ * allocated the most, or took the most time in the frames over the
+ * failing percentile.
+ *
+ * Settings are read into static fields when GamePanel loads, so every
+ * scenario runs in a JVM of its own. Needs no display.
+ *
+ * {@code FrameBudget [scenario...]} (default all). The build runs it at
+ * verify ({@code mvn verify} or {@code install}); -Dbudget.skip=true leaves
+ * it out. Limits can be overridden for slower machines with
+ * -Dpong.budget.tickBytes, paintBytes, tickP99Ms, frameP50Ms and frameP99Ms.
+ */
+public final class FrameBudget {
+
+    private static final int WARMUP_FRAMES = Integer.getInteger("pong.budget.warmup", 1500);
+    private static final int FRAMES = Integer.getInteger("pong.budget.frames", 1200);
+    private static final double DT = 1 / 60.0;
+
+    // one display frame at 60 Hz: the paint gets half of it at the median and all of it at p99
+    private static final double FRAME_MS = 1000 / 60.0;
+
+    // other (untracked) work per frame: Swing's paint, the snapshot hand-off, the quality governor
+    private static final String OUTSIDE = "outside phases";
+
+    // Paint phases checked on their own: PerfOverlay.UPDATE_STARS up to PHASES, then OUTSIDE. A phase may allocate
+    // its measured mean plus 10% and 64 B, which a new Color per particle or a new paint per paddle goes over.
+    // The star field's streaks and the untracked rest vary with what the JIT eliminates and get 25% and 128 B.
+    private static final int PAINT_PHASES = PerfOverlay.PHASES - PerfOverlay.UPDATE_STARS + 1;
+    private static final double PHASE_SLACK = 0.10;
+    private static final long PHASE_SLACK_BYTES = 64;
+    private static final double WIDE_SLACK = 0.25;
+    private static final long WIDE_SLACK_BYTES = 128;
+
+    private static final class Scenario {
+        final String name;
+        final String[] properties;
+        final int width, height;
+
+        // defaults: mean bytes per tick and per paint, time percentiles in ms
+        final long tickBytes, paintBytes;
+        final double tickP99Ms, frameP50Ms, frameP99Ms;
+
+        // measured mean bytes per frame of each paint phase, see PAINT_PHASES
+        final long[] phaseBytes;
+
+        Scenario(String name, int width, int height, long tickBytes, long paintBytes,
+                 double tickP99Ms, double frameP50Ms, double frameP99Ms, long[] phaseBytes, String... properties) {
+            if (phaseBytes.length != PAINT_PHASES) {
+                throw new IllegalArgumentException(
+                        name + ": " + phaseBytes.length + " phase means, not " + PAINT_PHASES);
+            }
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.tickBytes = tickBytes;
+            this.paintBytes = paintBytes;
+            this.tickP99Ms = tickP99Ms;
+            this.frameP50Ms = frameP50Ms;
+            this.frameP99Ms = frameP99Ms;
+            this.phaseBytes = phaseBytes;
+            this.properties = properties;
+        }
+
+        long phaseLimit(int i) {
+            boolean wide = i == PerfOverlay.PAINT_STARS - PerfOverlay.UPDATE_STARS || i == PAINT_PHASES - 1;
+            return (long) Math.ceil(phaseBytes[i] * (1 + (wide ? WIDE_SLACK : PHASE_SLACK)))
+                    + (wide ? WIDE_SLACK_BYTES : PHASE_SLACK_BYTES);
+        }
+    }
+
+    // starField.update, updateShootingStars, starField.draw, drawShootingStars, fireTrail.draw, ball + drawPaddle,
+    // drawHud + edges, outside phases
+    private static long[] phases(long... means) { return means; }
+
+    // every scenario: a fixed seed, both paddles played by the AI, full effects
+    private static final String[] COMMON = {
+            "-Dpong.seed=1", "-Dpong.ai=both", "-Dpong.aiLevel=hard", "-Dpong.quality=3"
+    };
+
+    // Paint bytes: the steady state on a slow single core plus 25%, which covers the run-to-run spread of the
+    // JIT's allocation elimination. Measured: rally 51,177, multiball 52,220, lowres 51,736 (one run 39,931),
+    // software 2,123. About 49 KB of each Java2D scenario is the per-fill state Java2D makes for the star
+    // streaks' gradient, roughly 190 B a star. The phase means are the phase table of the same runs (the largest
+    // of several where they differed).
+    private static final Scenario[] SCENARIOS = {
+            new Scenario("rally", 960, 540, 256, 64_000, 1, FRAME_MS / 2, FRAME_MS,
+                    phases(0, 1, 49_431, 227, 72, 702, 0, 744)),
+            new Scenario("multiball", 960, 540, 256, 66_000, 2, FRAME_MS / 2, FRAME_MS,
+                    phases(0, 1, 49_430, 227, 72, 958, 789, 743), "-Dpong.balls=48"),
+            new Scenario("lowres", 960, 540, 256, 65_000, 1, FRAME_MS / 2, FRAME_MS,
+                    phases(0, 1, 49_347, 227, 72, 702, 288, 1_099), "-Dpong.renderScale=0.6"),
+            new Scenario("software", 960, 540, 256, 3_000, 1, FRAME_MS / 2, FRAME_MS,
+                    phases(0, 1, 0, 32, 449, 703, 22, 916), "-Dpong.renderer=software"),
+    };
+
+    private FrameBudget() {}
+
+    private static Scenario scenario(String name) {
+        for (Scenario s : SCENARIOS) if (s.name.equals(name)) return s;
+        throw new IllegalArgumentException("unknown scenario: " + name);
+    }
+
+    private static long limit(String key, long fallback) {
+        return Long.getLong("pong.budget." + key, fallback);
+    }
+
+    private static double limit(String key, double fallback) {
+        String v = System.getProperty("pong.budget." + key);
+        return v != null ? Double.parseDouble(v) : fallback;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 2 && args[0].equals("--run")) {
+            System.exit(run(scenario(args[1])) ? 0 : 1);
+        }
+
+        List<Scenario> chosen = new ArrayList<>();
+        if (args.length == 0) chosen.addAll(Arrays.asList(SCENARIOS));
+        else for (String a : args) chosen.add(scenario(a));
+
+        List<String> failed = new ArrayList<>();
+        for (Scenario s : chosen) {
+            if (fork(s) != 0) failed.add(s.name);
+        }
+        if (failed.isEmpty()) {
+            System.out.printf("%nframe budget OK (%d scenarios)%n", chosen.size());
+        } else {
+            System.out.printf("%nframe budget FAILED: %s%n", String.join(", ", failed));
+            System.exit(1);
+        }
+    }
+
+    // Same JVM and classpath, the scenario's settings, our own budget overrides passed on
+    private static int fork(Scenario s) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        cmd.add("-Djava.awt.headless=true");
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("pong.budget.")) cmd.add("-D" + key + "=" + System.getProperty(key));
+        }
+        cmd.addAll(Arrays.asList(COMMON));
+        cmd.addAll(Arrays.asList(s.properties));
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(FrameBudget.class.getName());
+        cmd.add("--run");
+        cmd.add(s.name);
+        return new ProcessBuilder(cmd).inheritIO().start().waitFor();
+    }
+
+    private static boolean run(Scenario s) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean mx) || !mx.isThreadAllocatedMemorySupported()) {
+            System.out.println(s.name + ": this JVM cannot count allocations per thread");
+            return false;
+        }
+        mx.setThreadAllocatedMemoryEnabled(true);
+
+        GamePanel panel = new GamePanel();
+        panel.setSize(s.width, s.height);
+        PerfOverlay perf = panel.perfOverlay();
+        perf.collectPhases();
+
+        BufferedImage img = new BufferedImage(s.width, s.height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+
+        int phases = PerfOverlay.PHASES;
+        long[] tickNanos = new long[FRAMES], tickBytes = new long[FRAMES];
+        long[] paintNanos = new long[FRAMES], paintBytes = new long[FRAMES];
+        long[] phaseNanos = new long[FRAMES * phases], phaseBytes = new long[FRAMES * phases];
+        long[] nanos = new long[phases], bytes = new long[phases];
+
+        for (int i = -WARMUP_FRAMES; i < FRAMES; i++) {
+            long b0 = mx.getCurrentThreadAllocatedBytes();
+            long t0 = System.nanoTime();
+            panel.step(DT);
+            long t1 = System.nanoTime();
+            long b1 = mx.getCurrentThreadAllocatedBytes();
+            panel.paint(g);
+            long t2 = System.nanoTime();
+            long b2 = mx.getCurrentThreadAllocatedBytes();
+            perf.takePhases(nanos, bytes);
+
+            if (i < 0) continue;
+            tickNanos[i] = t1 - t0;
+            tickBytes[i] = b1 - b0;
+            paintNanos[i] = t2 - t1;
+            paintBytes[i] = b2 - b1;
+            System.arraycopy(nanos, 0, phaseNanos, i * phases, phases);
+            System.arraycopy(bytes, 0, phaseBytes, i * phases, phases);
+        }
+        g.dispose();
+
+        double tickMean = mean(tickBytes), paintMean = mean(paintBytes);
+        double tickP99 = percentile(tickNanos, 0.99) / 1e6;
+        double frameP50 = percentile(paintNanos, 0.50) / 1e6, frameP99 = percentile(paintNanos, 0.99) / 1e6;
+
+        System.out.printf("%n%s  %dx%d  %s%n", s.name, s.width, s.height, String.join(" ", s.properties));
+        System.out.printf("  alloc  tick %.0f B (max %d)  paint %.0f B (max %d)%n",
+                tickMean, max(tickBytes), paintMean, max(paintBytes));
+        System.out.printf("  time   tick p99 %.3f ms  paint p50 %.2f ms  p99 %.2f ms  max %.2f ms%n",
+                tickP99, frameP50, frameP99, max(paintNanos) / 1e6);
+        // paint phases against their own limits; the rest of the paint is OUTSIDE
+        double[] paintPhaseBytes = new double[PAINT_PHASES];
+        paintPhaseBytes[PAINT_PHASES - 1] = paintMean;
+        for (int p = PerfOverlay.UPDATE_STARS; p < phases; p++) {
+            paintPhaseBytes[p - PerfOverlay.UPDATE_STARS] = column(phaseBytes, p, phases) / FRAMES;
+            paintPhaseBytes[PAINT_PHASES - 1] -= paintPhaseBytes[p - PerfOverlay.UPDATE_STARS];
+        }
+
+        System.out.println("  phase                  mean ms    mean B   limit B");
+        for (int p = 0; p < phases; p++) {
+            System.out.printf("  %-20s %9.3f %9.0f", PerfOverlay.phaseName(p),
+                    column(phaseNanos, p, phases) / FRAMES / 1e6, column(phaseBytes, p, phases) / FRAMES);
+            if (p >= PerfOverlay.UPDATE_STARS) System.out.printf(" %9d", s.phaseLimit(p - PerfOverlay.UPDATE_STARS));
+            System.out.println();
+        }
+        System.out.printf("  %-20s %9s %9.0f %9d%n", OUTSIDE, "", paintPhaseBytes[PAINT_PHASES - 1],
+                s.phaseLimit(PAINT_PHASES - 1));
+
+        List<String> failures = new ArrayList<>();
+        long tickLimit = limit("tickBytes", s.tickBytes);
+        long paintLimit = limit("paintBytes", s.paintBytes);
+        if (tickMean > tickLimit) {
+            failures.add(String.format("tick allocates %.0f B > %d B; worst phase %s", tickMean, tickLimit,
+                    worstByBytes(phaseBytes, tickBytes, PerfOverlay.TICK_SIM, PerfOverlay.UPDATE_STARS)));
+        }
+        if (paintMean > paintLimit) {
+            failures.add(String.format("paint allocates %.0f B > %d B; worst phase %s", paintMean, paintLimit,
+                    worstByBytes(phaseBytes, paintBytes, PerfOverlay.UPDATE_STARS, phases)));
+        }
+        for (int i = 0; i < PAINT_PHASES; i++) {
+            if (paintPhaseBytes[i] > s.phaseLimit(i)) {
+                String name = i < PAINT_PHASES - 1 ? PerfOverlay.phaseName(PerfOverlay.UPDATE_STARS + i) : OUTSIDE;
+                failures.add(String.format("%s allocates %.0f B/frame > %d B", name, paintPhaseBytes[i],
+                        s.phaseLimit(i)));
+            }
+        }
+        double tickP99Limit = limit("tickP99Ms", s.tickP99Ms);
+        if (tickP99 > tickP99Limit) {
+            failures.add(String.format("tick p99 %.3f ms > %.3f ms; worst phase %s", tickP99, tickP99Limit,
+                    worstByTime(phaseNanos, tickNanos, 0.99, PerfOverlay.TICK_SIM, PerfOverlay.UPDATE_STARS)));
+        }
+        double p50Limit = limit("frameP50Ms", s.frameP50Ms);
+        double p99Limit = limit("frameP99Ms", s.frameP99Ms);
+        if (frameP50 > p50Limit) {
+            failures.add(String.format("paint p50 %.2f ms > %.2f ms; worst phase %s", frameP50, p50Limit,
+                    worstByTime(phaseNanos, paintNanos, 0.50, PerfOverlay.UPDATE_STARS, phases)));
+        }
+        if (frameP99 > p99Limit) {
+            failures.add(String.format("paint p99 %.2f ms > %.2f ms; worst phase %s", frameP99, p99Limit,
+                    worstByTime(phaseNanos, paintNanos, 0.99, PerfOverlay.UPDATE_STARS, phases)));
+        }
+
+        for (String f : failures) System.out.println("  FAIL " + f);
+        if (failures.isEmpty()) System.out.println("  OK");
+        return failures.isEmpty();
+    }
+
+    /** The phase in [from, to) that allocated the most overall, or OUTSIDE if untracked work did. */
+    private static String worstByBytes(long[] phaseBytes, long[] frameBytes, int from, int to) {
+        int phases = PerfOverlay.PHASES;
+        long total = 0;
+        for (long b : frameBytes) total += b;
+
+        int worst = -1;
+        double worstBytes = 0, tracked = 0;
+        for (int p = from; p < to; p++) {
+            double b = column(phaseBytes, p, phases);
+            tracked += b;
+            if (b > worstBytes) {
+                worst = p;
+                worstBytes = b;
+            }
+        }
+        if (total - tracked > worstBytes) {
+            return String.format("%s (%.0f B/frame)", OUTSIDE, (total - tracked) / FRAMES);
+        }
+        return String.format("%s (%.0f B/frame)", worst >= 0 ? PerfOverlay.phaseName(worst) : OUTSIDE,
+                worstBytes / FRAMES);
+    }
+
+    /** The phase in [from, to) that took the most time in the frames at or above the percentile p. */
+    private static String worstByTime(long[] phaseNanos, long[] frameNanos, double p, int from, int to) {
+        int phases = PerfOverlay.PHASES;
+        long cutoff = percentile(frameNanos, p);
+        long[] sum = new long[phases];
+        long total = 0;
+        int slow = 0;
+        for (int i = 0; i < frameNanos.length; i++) {
+            if (frameNanos[i] < cutoff) continue;
+            slow++;
+            total += frameNanos[i];
+            for (int k = from; k < to; k++) sum[k] += phaseNanos[i * phases + k];
+        }
+
+        int worst = from;
+        long tracked = 0;
+        for (int k = from; k < to; k++) {
+            tracked += sum[k];
+            if (sum[k] > sum[worst]) worst = k;
+        }
+        if (total - tracked > sum[worst]) {
+            return String.format("%s (%.2f ms/frame in the %d frames at or above it)", OUTSIDE,
+                    (total - tracked) / 1e6 / slow, slow);
+        }
+        return String.format("%s (%.2f ms/frame in the %d frames at or above it)", PerfOverlay.phaseName(worst),
+                sum[worst] / 1e6 / slow, slow);
+    }
+
+    private static double column(long[] perFrame, int phase, int phases) {
+        double sum = 0;
+        for (int i = phase; i < perFrame.length; i += phases) sum += perFrame[i];
+        return sum;
+    }
+
+    private static double mean(long[] values) {
+        double sum = 0;
+        for (long v : values) sum += v;
+        return sum / values.length;
+    }
+
+    private static long max(long[] values) {
+        long m = Long.MIN_VALUE;
+        for (long v : values) m = Math.max(m, v);
+        return m;
+    }
+
+    private static long percentile(long[] values, double p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) ((sorted.length - 1) * p)];
+    }
+}
@@ -0,0 +1,268 @@
+package pong;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+/**
+ * Offscreen export of a match as a PNG sequence or a Motion-JPEG AVI, at any
+ * size and frame rate, without a display and faster than real time.
+ *
+ * The calling thread re-simulates the match on one GamePanel and captures
+ * every frame (tick snapshot, interpolation point, shooting stars) into one
+ * of a fixed set of {@link ExportFrame} slots. A pool of render threads,
+ * each with a GamePanel of its own built from the same seed, paints the
+ * frames in parallel; a pool of encoders compresses them and writes PNG
+ * files straight to their own FileChannels. AVI frames are appended in order
+ * by the calling thread. When all slots are busy the simulation waits, so
+ * memory stays bounded however slow the disk is.
+ *
+ * {@code FrameExport <out.avi | out-dir> [seconds]}. The match comes from
+ * -Dpong.replay=recording (default length: the whole recording), or plays
+ * itself from -Dpong.seed with the AI on both sides (default 30 s). Set
+ * -Dpong.export.size=1920x1080, fps=60, threads (default: cores) and
+ * jpegQuality=0.9; other pong.* settings (balls, quality, renderer) apply
+ * as in the game.
+ */
+public final class FrameExport {
+
+    private static final String SIZE = System.getProperty("pong.export.size", "1920x1080");
+    private static final int FPS = Integer.getInteger("pong.export.fps", 60);
+    private static final int THREADS = Integer.getInteger("pong.export.threads", Runtime.getRuntime().availableProcessors());
+    private static final float JPEG_QUALITY = Float.parseFloat(System.getProperty("pong.export.jpegQuality", "0.9"));
+    private static final double DEFAULT_SECONDS = 30;
+
+    private final Path out;
+    private final boolean avi;
+    private final int width, height;
+    private final int slots;
+
+    private final ExecutorService renderPool;
+    private final ExecutorService encodePool;
+    private final ThreadLocal<GamePanel> renderers;
+    private final ThreadLocal<Encoder> encoders;
+    private final ArrayBlockingQueue<ExportFrame> free;
+
+    FrameExport(Path out, boolean avi, int width, int height, int threads) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("bad size: " + width + "x" + height);
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0: " + threads);
+        this.out = out;
+        this.avi = avi;
+        this.width = width;
+        this.height = height;
+
+        // enough for every thread to have a frame in hand and one waiting
+        slots = 2 * threads + 2;
+        free = new ArrayBlockingQueue<>(slots);
+        renderPool = pool("export-render", threads);
+        encodePool = pool("export-encode", threads);
+        renderers = ThreadLocal.withInitial(() -> {
+            GamePanel p = new GamePanel();
+            p.setSize(width, height);
+            return p;
+        });
+        encoders = ThreadLocal.withInitial(Encoder::new);
+    }
+
+    /** Simulates and exports the given number of frames. */
+    void run(int frames) throws IOException, InterruptedException {
+        GamePanel sim = new GamePanel();
+        sim.setSize(width, height);
+        for (int i = 0; i < slots; i++) free.add(sim.newExportFrame(width, height));
+
+        double tickDt = GamePanel.tickSeconds();
+        double frameDt = 1.0 / FPS;
+        double simTime = 0;
+        ArrayDeque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+        try (MjpegAviWriter writer = avi ? new MjpegAviWriter(out, width, height, FPS) : null) {
+            for (int k = 0; k < frames; k++) {
+                // frame k shows time (k + 1) / fps, so there is always a tick on both sides of it
+                double time = (k + 1) * frameDt;
+                while (simTime < time) {
+                    sim.step(tickDt);
+                    simTime += tickDt;
+                }
+
+                // waits while every slot is being rendered or encoded
+                ExportFrame f = free.take();
+                f.index = k;
+                f.time = time;
+                f.alpha = Math.max(0, Math.min(1, 1 - (simTime - time) / tickDt));
+                sim.captureExport(f, frameDt);
+
+                CompletableFuture<byte[]> done = CompletableFuture.supplyAsync(() -> render(f), renderPool)
+                        .thenApplyAsync(this::encode, encodePool);
+                done.whenComplete((bytes, e) -> free.add(f));
+                pending.add(done);
+
+                // finished frames leave in order; a failed one ends the export here
+                while (!pending.isEmpty() && (pending.size() >= slots || pending.peek().isDone())) {
+                    write(writer, pending.poll().join());
+                }
+            }
+            while (!pending.isEmpty()) write(writer, pending.poll().join());
+            if (writer != null) writer.finish();
+        } finally {
+            renderPool.shutdownNow();
+            encodePool.shutdownNow();
+        }
+    }
+
+    private ExportFrame render(ExportFrame f) {
+        renderers.get().paintExport(f);
+        return f;
+    }
+
+    // PNG: written here, on the encode thread; AVI: the JPEG, for the ordered writer
+    private byte[] encode(ExportFrame f) {
+        try {
+            ByteBuffer b = encoders.get().encode(f.image);
+            if (avi) return Arrays.copyOfRange(b.array(), 0, b.limit());
+
+            Path file = out.resolve(String.format("frame-%06d.png", f.index));
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (b.hasRemaining()) ch.write(b);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(MjpegAviWriter writer, byte[] jpeg) throws IOException {
+        if (writer != null) writer.writeFrame(jpeg, jpeg.length);
+    }
+
+    private static ExecutorService pool(String name, int threads) {
+        AtomicInteger n = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, name + "-" + n.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // One per encode thread: ImageIO writers are not thread-safe
+    private final class Encoder {
+        private final ImageWriter writer;
+        private final ImageWriteParam param;
+        private final Bytes bytes = new Bytes();
+
+        Encoder() {
+            writer = ImageIO.getImageWritersByFormatName(avi ? "jpeg" : "png").next();
+            param = writer.getDefaultWriteParam();
+            if (avi) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+        }
+
+        ByteBuffer encode(BufferedImage img) throws IOException {
+            bytes.reset();
+            try (ImageOutputStream ios = new MemoryCacheImageOutputStream(bytes)) {
+                writer.setOutput(ios);
+                writer.write(null, new IIOImage(img, null, null), param);
+            }
+            return bytes.buffer();
+        }
+    }
+
+    // the encoded bytes without a copy
+    private static final class Bytes extends ByteArrayOutputStream {
+        ByteBuffer buffer() { return ByteBuffer.wrap(buf, 0, count); }
+    }
+
+    // GamePanel reads its settings once, when it loads: one seed for every panel, nothing that needs a window.
+    // Returns the length of the replay, or the default length for a match the AI plays.
+    private static double prepare() throws IOException {
+        if (System.getProperty("java.awt.headless") == null) System.setProperty("java.awt.headless", "true");
+        for (String key : new String[] { "pong.record", "pong.host", "pong.connect", "pong.latency" }) {
+            System.clearProperty(key);
+        }
+        System.setProperty("pong.present", "swing");
+        System.setProperty("pong.loop", "thread");
+        if (System.getProperty("pong.quality") == null) {
+            System.setProperty("pong.quality", String.valueOf(QualityGovernor.HIGHEST));
+        }
+
+        String replay = System.getProperty("pong.replay");
+        if (replay != null) {
+            MatchReplay r = new MatchReplay(Path.of(replay));
+            double seconds = 0;
+            double firstDt = Double.NaN;
+            while (r.next()) {
+                if (Double.isNaN(firstDt)) firstDt = r.dt();
+                seconds += r.dt();
+            }
+            // step the panel at the rate the match was recorded at
+            if (System.getProperty("pong.tickHz") == null && firstDt > 0) {
+                System.setProperty("pong.tickHz", String.valueOf(Math.round(1 / firstDt)));
+            }
+            return seconds;
+        }
+
+        if (System.getProperty("pong.seed") == null) {
+            long seed = new GameRandom().nextLong();
+            System.setProperty("pong.seed", String.valueOf(seed));
+            System.out.println("seed " + seed);
+        }
+        if (System.getProperty("pong.ai") == null) System.setProperty("pong.ai", "both");
+        return DEFAULT_SECONDS;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage: FrameExport <out.avi | out-dir> [seconds]");
+            System.exit(2);
+        }
+        String[] size = SIZE.toLowerCase(Locale.ROOT).split("x");
+        if (size.length != 2) throw new IllegalArgumentException("pong.export.size must be WIDTHxHEIGHT: " + SIZE);
+        int width = Integer.parseInt(size[0].trim());
+        int height = Integer.parseInt(size[1].trim());
+        if (FPS <= 0) throw new IllegalArgumentException("pong.export.fps must be > 0: " + FPS);
+        if (JPEG_QUALITY < 0 || JPEG_QUALITY > 1) {
+            throw new IllegalArgumentException("pong.export.jpegQuality must be 0..1: " + JPEG_QUALITY);
+        }
+
+        double length = prepare();
+        if (!(GamePanel.tickSeconds() > 0) || Double.isInfinite(GamePanel.tickSeconds())) {
+            throw new IllegalArgumentException("export needs a fixed tick rate, not pong.tickHz=0");
+        }
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : length;
+        if (!(seconds > 0)) throw new IllegalArgumentException("nothing to export: " + seconds + " s");
+        int frames = Math.max(1, (int) (seconds * FPS));
+
+        Path out = Path.of(args[0]);
+        boolean avi = args[0].toLowerCase(Locale.ROOT).endsWith(".avi");
+        if (!avi) Files.createDirectories(out);
+
+        long start = System.nanoTime();
+        new FrameExport(out, avi, width, height, THREADS).run(frames);
+        double secs = (System.nanoTime() - start) / 1e9;
+        double played = frames / (double) FPS;
+        System.out.printf("%d frames %dx%d at %d fps (%.1f s of play) -> %s in %.1f s: %.1f frames/s, %.1fx real time,"
+                + " %d threads%n", frames, width, height, FPS, played, out, secs, frames / secs, played / secs, THREADS);
+    }
+}
@@ -0,0 +1,56 @@
+package pong;
+
+/**
+ * Everything the renderer needs from one simulation tick: the state before
+ * and after it (for interpolation), the live fire and explosion particles,
+ * the multi-ball positions and the numbers the HUD shows. Filled on the
+ * simulation thread, drawn on the render thread, handed over through a
+ * {@link TripleBuffer}; all arrays are allocated once.
+ */
+final class FrameSnapshot {
+
+    final PongState state = new PongState();
+    final PongState prev = new PongState();
+    final FireTrail particles;
+
+    // multi-ball positions after and before the tick, null without multi-ball
+    final double[] ballX, ballY, ballPrevX, ballPrevY;
+    int ballContacts;
+    long ballPairs;
+
+    long seq;             // tick number, 0 = nothing simulated yet
+    long tickEndNanos;    // wall-clock time the state stands for
+    double simTime;       // seconds simulated so far
+    long workNanos;       // simulation time spent so far, for the quality governor
+    long publishedNanos;  // when the simulation thread handed it over
+
+    // netplay HUD
+    boolean netRunning;
+    double netRtt, netResim;
+    int netRollback, netMaxRollback;
+    long netStalls, netDesyncs;
+
+    FrameSnapshot(FireTrail trail, MultiBall balls) {
+        particles = trail.renderCopy();
+        int n = balls != null ? balls.count() : 0;
+        ballX = balls != null ? new double[n] : null;
+        ballY = balls != null ? new double[n] : null;
+        ballPrevX = balls != null ? new double[n] : null;
+        ballPrevY = balls != null ? new double[n] : null;
+    }
+
+    void capture(PongState state, PongState prev, FireTrail trail, MultiBall balls) {
+        this.state.copyFrom(state);
+        this.prev.copyFrom(prev);
+        particles.copyFrom(trail);
+        if (balls != null) {
+            int n = balls.count();
+            System.arraycopy(balls.x, 0, ballX, 0, n);
+            System.arraycopy(balls.y, 0, ballY, 0, n);
+            System.arraycopy(balls.prevX, 0, ballPrevX, 0, n);
+            System.arraycopy(balls.prevY, 0, ballPrevY, 0, n);
+            ballContacts = balls.collisions();
+            ballPairs = balls.pairsTested();
+        }
+    }
+}
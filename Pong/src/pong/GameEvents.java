@@ -0,0 +1,178 @@
+package pong;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder events for what the game is doing, so a recording
+ * ties CPU time and GC pauses to ticks, frames, paddle hits and effect
+ * load. Record with the bundled profile and summarize with
+ * {@link JfrReport}:
+ * {@code -XX:StartFlightRecording:settings=Pong/jfr/pong.jfc,filename=pong.jfr}
+ *
+ * Call sites create the event and check shouldCommit() before filling it
+ * in; without a recording that is the whole cost, and the event object
+ * never escapes, so the JIT drops the allocation.
+ */
+final class GameEvents {
+
+    private GameEvents() {}
+
+    @Name("pong.Tick")
+    @Label("Tick")
+    @Category({ "Pong", "Simulation" })
+    @Description("One fixed simulation step, from input to snapshot")
+    @StackTrace(false)
+    static final class Tick extends Event {
+        @Label("Tick")
+        long tick;
+
+        @Label("Delta Time")
+        @Description("Seconds simulated")
+        double dt;
+    }
+
+    @Name("pong.Frame")
+    @Label("Frame")
+    @Category({ "Pong", "Rendering" })
+    @Description("One rendered frame, effects update and paint")
+    @StackTrace(false)
+    static final class Frame extends Event {
+        @Label("Tick Shown")
+        long tick;
+
+        @Label("Quality Level")
+        int quality;
+
+        @Label("Render Scale")
+        double renderScale;
+    }
+
+    @Name("pong.Phase")
+    @Label("Phase")
+    @Category({ "Pong", "Rendering" })
+    @Description("Time spent in one tick or frame phase (see the F3 overlay)")
+    @StackTrace(false)
+    static final class Phase extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanos;
+    }
+
+    @Name("pong.PaddleHit")
+    @Label("Paddle Hit")
+    @Category({ "Pong", "Simulation" })
+    @StackTrace(false)
+    static final class PaddleHit extends Event {
+        @Label("Side")
+        String side;
+
+        @Label("Ball Speed")
+        @Description("Speed after the bounce and clampBallSpeed, px/s")
+        double speed;
+
+        @Label("Spin")
+        @Description("Vertical velocity added by the paddle's movement, px/s")
+        double spin;
+    }
+
+    @Name("pong.Score")
+    @Label("Score")
+    @Category({ "Pong", "Simulation" })
+    @StackTrace(false)
+    static final class Score extends Event {
+        @Label("Scorer")
+        String scorer;
+
+        @Label("Left Score")
+        int score1;
+
+        @Label("Right Score")
+        int score2;
+    }
+
+    @Name("pong.StarFieldResize")
+    @Label("Star Field Resize")
+    @Category({ "Pong", "Rendering" })
+    @Description("Stars moved to a new panel size")
+    @StackTrace(false)
+    static final class StarFieldResize extends Event {
+        @Label("Old Width")
+        int oldWidth;
+
+        @Label("Old Height")
+        int oldHeight;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Stars")
+        int stars;
+    }
+
+    @Name("pong.StarLayers")
+    @Label("Star Layers Rebuilt")
+    @Category({ "Pong", "Rendering" })
+    @Description("The star field's cached rotating layers were regenerated")
+    @StackTrace(false)
+    static final class StarLayers extends Event {
+        @Label("Stars")
+        int stars;
+
+        @Label("Layer Side")
+        @Description("Pixels per side of the largest layer image")
+        int side;
+    }
+
+    @Name("pong.Fullscreen")
+    @Label("Fullscreen Toggle")
+    @Category({ "Pong", "Window" })
+    @StackTrace(false)
+    static final class Fullscreen extends Event {
+        @Label("Fullscreen")
+        boolean fullscreen;
+
+        @Label("Refresh Rate")
+        @Description("Display refresh rate afterwards, Hz")
+        int refreshRate;
+    }
+
+    @Name("pong.EffectLoad")
+    @Label("Effect Load")
+    @Category({ "Pong", "Rendering" })
+    @Description("Live particle and star counts")
+    @Period("1 s")
+    @StackTrace(false)
+    static final class EffectLoad extends Event {
+        @Label("Particles")
+        int particles;
+
+        @Label("Stars")
+        int stars;
+
+        @Label("Shooting Stars")
+        int shootingStars;
+
+        @Label("Stress Particles")
+        int stressParticles;
+
+        @Label("Balls")
+        int balls;
+
+        @Label("Quality Level")
+        int quality;
+    }
+
+    static void phase(int phase, long nanos) {
+        Phase e = new Phase();
+        if (!e.isEnabled()) return;
+        e.phase = PerfOverlay.phaseName(phase);
+        e.nanos = nanos;
+        e.commit();
+    }
+}
@@ -0,0 +1,132 @@
+package pong;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep game loop on its own thread.
+ *
+ * The simulation is stepped at a constant rate from an accumulator, so
+ * physics always sees the same dt no matter how late a frame is. Frames are
+ * requested at a separate rate and get the fraction of a tick that has
+ * passed since the last step, for interpolating between the last two states.
+ * Pacing uses System.nanoTime: park until shortly before the deadline, then
+ * spin-yield the rest for accuracy.
+ */
+public final class GameLoop implements Runnable {
+
+    public interface Game {
+        /** Advances the simulation by exactly dt seconds. Called on the loop thread. */
+        void step(double dt);
+
+        /** Requests a frame; alpha in [0..1) is how far we are between the previous and current tick. */
+        void render(double alpha);
+    }
+
+    // below this we stop parking and spin instead (park overshoots by up to ~1ms)
+    private static final long SPIN_NANOS = 1_000_000L;
+
+    // after a long stall don't try to catch up more than this (avoids the spiral of death)
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    private final Game game;
+    private final long tickNanos;
+    private volatile long frameNanos;
+
+    private volatile boolean running = false;
+    private volatile Thread thread;
+
+    private volatile long lastTickNanos;
+    private volatile long stepEndNanos;
+
+    /**
+     * @param tickHz simulation steps per second
+     * @param fps frames requested per second, or 0 to render after every tick batch
+     */
+    public GameLoop(Game game, int tickHz, int fps) {
+        if (tickHz <= 0) throw new IllegalArgumentException("tickHz must be > 0: " + tickHz);
+        this.game = game;
+        this.tickNanos = 1_000_000_000L / tickHz;
+        setFrameRate(fps);
+    }
+
+    /** Changes the frame rate, e.g. after a display mode change; 0 = render after every tick batch. */
+    public void setFrameRate(int fps) {
+        if (fps < 0) throw new IllegalArgumentException("fps must be >= 0: " + fps);
+        frameNanos = fps > 0 ? 1_000_000_000L / fps : 0;
+    }
+
+    public double tickSeconds() { return tickNanos / 1_000_000_000.0; }
+
+    /** Time of the last simulation step (System.nanoTime). */
+    public long lastTickNanos() { return lastTickNanos; }
+
+    /**
+     * Wall-clock end (System.nanoTime) of the tick interval the running step
+     * stands for; consecutive steps cover consecutive intervals.
+     */
+    public long stepEndNanos() { return stepEndNanos; }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread = null;
+        }
+    }
+
+    public boolean isRunning() { return running; }
+
+    @Override
+    public void run() {
+        double dt = tickSeconds();
+        long prev = System.nanoTime();
+        long acc = 0;
+        long nextFrame = prev;
+        lastTickNanos = prev;
+
+        // a stop()/start() pair may overlap with this thread still finishing its frame
+        while (running && thread == Thread.currentThread()) {
+            long now = System.nanoTime();
+            long frame = now - prev;
+            prev = now;
+            acc += Math.min(frame, MAX_FRAME_NANOS);
+
+            while (acc >= tickNanos) {
+                stepEndNanos = now - acc + tickNanos;
+                game.step(dt);
+                acc -= tickNanos;
+                lastTickNanos = now - acc;
+            }
+
+            game.render(acc / (double) tickNanos);
+
+            // next deadline: the next frame, or the next tick when rendering is unpaced
+            long fn = frameNanos;
+            if (fn > 0) {
+                nextFrame += fn;
+                if (nextFrame < now) nextFrame = now + fn; // fell behind, don't burst
+            } else {
+                nextFrame = now + (tickNanos - acc);
+            }
+            waitUntil(nextFrame);
+        }
+    }
+
+    private void waitUntil(long deadline) {
+        while (running) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) return;
+
+            if (left > SPIN_NANOS) LockSupport.parkNanos(left - SPIN_NANOS);
+            else Thread.yield();
+        }
+    }
+}
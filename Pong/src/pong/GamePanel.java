@@ -0,0 +1,1167 @@
+package pong;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import jdk.jfr.FlightRecorder;
+
+public class GamePanel extends JPanel implements GameLoop.Game {
+
+    // Simulation rate (fixed dt) and frame rate; 0 fps = use the display refresh rate
+    private static final int TICK_HZ = Integer.getInteger("pong.tickHz", 60);
+    private static final int FPS = Integer.getInteger("pong.fps", 0);
+
+    // Match seed (random unless given) and optional input recording / replay
+    private static final String SEED = System.getProperty("pong.seed");
+    private static final String RECORD = System.getProperty("pong.record");
+    private static final String REPLAY = System.getProperty("pong.replay");
+
+    // Netplay: host on a UDP port (left paddle) or connect to host:port (right paddle)
+    private static final String NET_HOST = System.getProperty("pong.host");
+    private static final String NET_CONNECT = System.getProperty("pong.connect");
+    private static final int NET_INPUT_DELAY = Integer.getInteger("pong.netInputDelay", 1);
+
+    // CPU players: -Dpong.ai=left|right|both at -Dpong.aiLevel=easy|normal|hard|perfect
+    private static final String AI = System.getProperty("pong.ai", "");
+    private static final String AI_LEVEL = System.getProperty("pong.aiLevel", "normal");
+
+    // Multi-ball mode: -Dpong.balls=N balls in total (local games only), extras sized by -Dpong.ballSize
+    private static final int BALLS = Integer.getInteger("pong.balls", 1);
+    private static final String BALL_SIZE = System.getProperty("pong.ballSize");
+
+    // Effect layers (stars, shooting stars, particles): "java2d" or the tiled "software" rasterizer
+    private static final boolean SOFTWARE_EFFECTS = "software".equals(System.getProperty("pong.renderer", "java2d"));
+
+    // Visual quality: frame-time budget (default one display frame) and an optional pinned level 0..3
+    private static final String FRAME_BUDGET_MS = System.getProperty("pong.frameBudgetMs");
+    private static final Integer QUALITY = Integer.getInteger("pong.quality");
+    // Fixed internal render scale 0.5..1 instead of dynamic resolution
+    private static final String RENDER_SCALE = System.getProperty("pong.renderScale");
+
+    // "thread" = GameLoop, "timer" = a Swing timer stepping and painting on the EDT (for comparison)
+    private static final boolean TIMER_LOOP = "timer".equals(System.getProperty("pong.loop", "thread"));
+    // Print input-to-present latency percentiles, with synthetic probe events
+    private static final boolean LATENCY = Boolean.getBoolean("pong.latency");
+    // Presentation: "auto" (page flipping when accelerated), "active" or "swing", with 2 or 3 buffers
+    private static final String PRESENT = System.getProperty("pong.present", "auto");
+    private static final int BUFFERS = Integer.getInteger("pong.buffers", 2);
+
+    private static final Color FIELD_EDGE = new Color(255, 255, 255, 40);
+    private static final AffineTransform IDENTITY = new AffineTransform();
+
+    // Gameplay (ball, paddles, scores, effect timers) lives in the simulation
+    private final PongState state = new PongState();
+    private final PongSimulation sim;
+
+    private MatchRecorder recorder;
+    private MatchReplay replay;
+    private NetSession net;
+    private AiPaddle aiLeft, aiRight;
+    private MultiBall balls;
+    private int trailCursor;
+    // emission is per second; what a tick leaves over is carried to the next one
+    private double fireDue, trailDue;
+
+    // State at the previous tick, for interpolated rendering
+    private final PongState prev = new PongState();
+
+    // Simulation runs on the loop thread; the lock only keeps the recorder's shutdown hook out of a tick
+    private final Object simLock = new Object();
+    private final GameLoop loop;
+    private Timer timer;
+
+    // Every tick is handed to the renderer as a snapshot; neither thread waits for the other
+    private final TripleBuffer<FrameSnapshot> frames;
+    private long seq;
+    private double simTime;
+    private long workNanos;
+
+    // Render side: the snapshot on screen, how far the background effects have been advanced
+    private FrameSnapshot shown;
+    private double effectsTime;
+    private boolean exportPrimed;
+    private long seenWorkNanos;
+
+    // Effect load picked by the renderer's quality governor, applied by the simulation
+    private volatile int fireRate, explosionParticles, particleBudget;
+    // the governor's level for the JFR periodic thread
+    private volatile int qualityLevel;
+    // Frame budget after a refresh rate change, picked up by the renderer; 0 = default
+    private volatile long budgetRequest;
+
+    // Active rendering on a render thread; null = Swing paints on the EDT
+    private volatile ActiveRenderer active;
+    private int frameRate;
+
+    // Timestamped key events from the EDT, integrated per tick on the loop thread
+    private final InputQueue input = new InputQueue();
+    private InputLatency latency;
+
+    // Particles
+    private final FireTrail fireTrail;
+
+    // Rotating star background
+    private final StarField starField;
+
+    // Shooting stars (Sternschnuppen)
+    private final ArrayList<ShootingStar> stars = new ArrayList<>();
+    private final GameRandom shootingRandom;
+    private double nextStarIn;
+
+    // Particle stress mode (F4): replaces the game effects with 1M+ particles
+    private static final int STRESS_PARTICLES = Integer.getInteger("pong.stressParticles", 1_000_000);
+    private ParticleStress stress;
+    private volatile boolean stressMode = false;
+
+    // Only used with -Dpong.renderer=software
+    private final SoftwareRasterizer raster = SOFTWARE_EFFECTS ? new SoftwareRasterizer() : null;
+
+    // Frame timing overlay (F3)
+    private final PerfOverlay perf = new PerfOverlay();
+
+    // Pre-rendered score panel, paddles, paddle glow and edge damage gradients
+    private final RenderCache renderCache = new RenderCache();
+
+    // scratch gradient for the shooting stars, set before every streak
+    private final StreakPaint streakPaint = new StreakPaint();
+
+    // Scales the effects (and the render resolution) to hold the frame budget
+    private final QualityGovernor quality;
+
+    // View transform: playfield units -> panel pixels, uniform scale, centered (letterboxed)
+    private double viewScale = 1, viewX = 0, viewY = 0;
+
+    // Dynamic resolution: the frame is painted this much smaller into lowRes, then upscaled
+    private double pixelScale = 1;
+    private BufferedImage lowRes;
+    private VolatileImage lowResVolatile;
+
+    // Per-frame HUD text, drawn with drawChars
+    private final StringBuilder hudText = new StringBuilder(64);
+    private char[] hudChars = new char[64];
+
+    // Fullscreen toggle state (F11) and the window to go back to
+    private boolean fullscreen = false;
+    private Rectangle windowBounds;
+
+    public GamePanel() {
+        setBackground(Color.BLACK);
+        setFocusable(true);
+
+        // one seed drives everything: simulation first, then a split per effect subsystem
+        try {
+            if (REPLAY != null) replay = new MatchReplay(Path.of(REPLAY));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long seed = replay != null ? replay.seed() : SEED != null ? Long.parseLong(SEED) : new GameRandom().nextLong();
+
+        sim = new PongSimulation(state, seed);
+        GameRandom fx = new GameRandom(GameRandom.mix64(seed));
+        fireTrail = new FireTrail(FireTrail.DEFAULT_CAPACITY, fx.split());
+        starField = new StarField(260, fx.split());
+        shootingRandom = fx.split();
+        nextStarIn = shootingRandom.nextDouble(2.5, 6.0);
+
+        if (AI.equals("left") || AI.equals("both")) aiLeft = AiPaddle.level(AI_LEVEL, true, fx.split());
+        if (AI.equals("right") || AI.equals("both")) aiRight = AiPaddle.level(AI_LEVEL, false, fx.split());
+
+        try {
+            if (NET_HOST != null) net = NetSession.host(Integer.parseInt(NET_HOST), sim, seed, 1.0 / TICK_HZ, NET_INPUT_DELAY);
+            else if (NET_CONNECT != null) net = NetSession.connect(NET_CONNECT, sim);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (BALLS > 1 && replay == null && net == null) {
+            balls = new MultiBall(BALLS, BALL_SIZE != null ? Double.parseDouble(BALL_SIZE) : MultiBall.defaultSize(BALLS));
+            sim.setBalls(balls);
+        }
+
+        if (RECORD != null && replay == null && net == null && balls == null) startRecording(Path.of(RECORD), seed);
+
+        sim.setListener(new PongSimulation.Listener() {
+            @Override
+            public void paddleHit(boolean left, double x, double y, double speed, double spin) {
+                fireTrail.emitExplosion(x, y, explosionParticles);
+
+                GameEvents.PaddleHit e = new GameEvents.PaddleHit();
+                if (e.shouldCommit()) {
+                    e.side = left ? "left" : "right";
+                    e.speed = speed;
+                    e.spin = spin;
+                    e.commit();
+                }
+            }
+
+            @Override
+            public void scored(boolean leftScored) {
+                GameEvents.Score e = new GameEvents.Score();
+                if (e.shouldCommit()) {
+                    e.scorer = leftScored ? "left" : "right";
+                    e.score1 = state.score1;
+                    e.score2 = state.score2;
+                    e.commit();
+                }
+            }
+        });
+        FlightRecorder.addPeriodicEvent(GameEvents.EffectLoad.class, this::recordEffectLoad);
+
+        // Use key bindings (more reliable than KeyListener)
+        setupKeyBindings();
+
+        frames = new TripleBuffer<>(() -> new FrameSnapshot(fireTrail, balls));
+        shown = frames.latest();
+
+        int fps = FPS > 0 ? FPS : displayRefreshRate();
+        frameRate = fps;
+        loop = new GameLoop(this, TICK_HZ, fps);
+        if (TIMER_LOOP) timer = new Timer(Math.max(1, 1000 / TICK_HZ), e -> {
+            step(1.0 / TICK_HZ);
+            repaint();
+        });
+
+        // the timer loop is the old Swing baseline, so it always paints through Swing
+        if (timer == null && (PRESENT.equals("active") || PRESENT.equals("auto") && ActiveRenderer.available())) {
+            active = new ActiveRenderer(BUFFERS);
+            setLayout(new BorderLayout());
+            add(active.canvas(), BorderLayout.CENTER);
+        }
+
+        if (LATENCY) {
+            latency = new InputLatency(String.format("loop=%s present=%s tick=%d Hz fps=%d",
+                    TIMER_LOOP ? "timer" : "thread", active != null ? "active" : "swing", TICK_HZ, fps));
+            input.setLatency(latency);
+            InputLatency.startProbe(input);
+        }
+
+        quality = new QualityGovernor(FRAME_BUDGET_MS != null
+                ? (long) (Double.parseDouble(FRAME_BUDGET_MS) * 1_000_000)
+                : 1_000_000_000L / fps);
+        if (QUALITY != null) quality.pin(QUALITY);
+        if (RENDER_SCALE != null) quality.fixRenderScale(Double.parseDouble(RENDER_SCALE));
+        applyQuality();
+    }
+
+    private void applyQuality() {
+        starField.setVisibleCount(quality.stars());
+        fireRate = quality.fireRate();
+        explosionParticles = quality.explosionParticles();
+        particleBudget = quality.particleBudget();
+        qualityLevel = quality.level();
+    }
+
+    private static int displayRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) return 60;
+        int hz = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDisplayMode().getRefreshRate();
+        return hz == DisplayMode.REFRESH_RATE_UNKNOWN ? 60 : hz;
+    }
+
+    private void startRecording(Path file, long seed) {
+        try {
+            recorder = new MatchRecorder(file, seed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // finish the log (trailer with final state hash) when the game exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            loop.stop();
+            synchronized (simLock) {
+                try {
+                    recorder.finish(state);
+                } catch (IOException e) {
+                    System.err.println("could not finish recording: " + e);
+                }
+            }
+        }, "recorder-finish"));
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (timer != null) {
+            timer.start();
+        } else {
+            loop.start();
+            ActiveRenderer a = active;
+            if (a != null) a.start(scene, frameRate, () -> fallBackToSwing(a));
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (timer != null) timer.stop();
+        ActiveRenderer a = active;
+        if (a != null) a.stop();
+        loop.stop();
+        super.removeNotify();
+    }
+
+    private void setupKeyBindings() {
+        InputMap im = getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap am = getActionMap();
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_W, 0, false), "L_UP_P");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_W, 0, true), "L_UP_R");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_S, 0, false), "L_DN_P");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_S, 0, true), "L_DN_R");
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0, false), "R_UP_P");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0, true), "R_UP_R");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0, false), "R_DN_P");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0, true), "R_DN_R");
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F11, 0, false), "TOGGLE_FS");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0, false), "TOGGLE_PERF");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F4, 0, false), "TOGGLE_STRESS");
+
+        am.put("L_UP_P", new AbstractAction() { public void actionPerformed(java.awt.event.ActionEvent e) { input.press(PongSimulation.LEFT_UP); }});
+        am.put("L_UP_R", new AbstractAction() { public void actionPerformed(java.awt.event.ActionEvent e) { input.release(PongSimulation.LEFT_UP); }});
+        am.put("L_DN_P", new AbstractAction() { public void actionPerformed(java.awt.event.ActionEvent e) { input.press(PongSimulation.LEFT_DOWN); }});
+        am.put("L_DN_R", new AbstractAction() { public void actionPerformed(java.awt.event.ActionEvent e) { input.release(PongSimulation.LEFT_DOWN); }});
+
+        am.put("R_UP_P", new AbstractAction() { public void actionPerformed(java.awt.event.ActionEvent e) { input.press(PongSimulation.RIGHT_UP); }});
+        am.put("R_UP_R", new AbstractAction() { public void actionPerformed(java.awt.event.ActionEvent e) { input.release(PongSimulation.RIGHT_UP); }});
+        am.put("R_DN_P", new AbstractAction() { public void actionPerformed(java.awt.event.ActionEvent e) { input.press(PongSimulation.RIGHT_DOWN); }});
+        am.put("R_DN_R", new AbstractAction() { public void actionPerformed(java.awt.event.ActionEvent e) { input.release(PongSimulation.RIGHT_DOWN); }});
+
+        am.put("TOGGLE_FS", new AbstractAction() {
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                toggleFullscreen();
+            }
+        });
+
+        am.put("TOGGLE_PERF", new AbstractAction() {
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                perf.toggle();
+            }
+        });
+
+        am.put("TOGGLE_STRESS", new AbstractAction() {
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                toggleStress();
+            }
+        });
+    }
+
+    // The renderer creates and runs the stress particles
+    private void toggleStress() {
+        stressMode = !stressMode;
+    }
+
+    // Same window in and out of fullscreen: no dispose, no new peer, no lost buffers
+    private void toggleFullscreen() {
+        Window w = SwingUtilities.getWindowAncestor(this);
+        if (!(w instanceof JFrame frame)) return;
+
+        GraphicsDevice device = frame.getGraphicsConfiguration().getDevice();
+        fullscreen = !fullscreen;
+        GameEvents.Fullscreen event = new GameEvents.Fullscreen();
+        event.begin();
+
+        if (fullscreen) {
+            windowBounds = frame.getBounds();
+            device.setFullScreenWindow(frame);
+            DisplayMode fastest = fastestDisplayMode(device);
+            if (fastest != null) {
+                try {
+                    device.setDisplayMode(fastest);
+                } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                    // keep the desktop mode
+                }
+            }
+        } else {
+            device.setFullScreenWindow(null);           // also restores the display mode
+            if (windowBounds != null) frame.setBounds(windowBounds);
+        }
+        followRefreshRate(device);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.fullscreen = fullscreen;
+            event.refreshRate = device.getDisplayMode().getRefreshRate();
+            event.commit();
+        }
+
+        // keep input working
+        requestFocusInWindow();
+    }
+
+    // For FrameBudget, which drives the panel headless and reads the phases per frame
+    PerfOverlay perfOverlay() { return perf; }
+
+    // --- Offscreen export (FrameExport): one panel plays the match, the others only paint it ---
+
+    static double tickSeconds() { return 1.0 / TICK_HZ; }
+
+    ExportFrame newExportFrame(int w, int h) {
+        return new ExportFrame(new FrameSnapshot(fireTrail, balls), w, h);
+    }
+
+    /** Producer side: the state after the last tick, and the shooting stars advanced by frameDt. */
+    void captureExport(ExportFrame f, double frameDt) {
+        updateShootingStars(frameDt, getWidth(), getHeight());
+        f.tick.capture(state, prev, fireTrail, balls);
+        f.tick.seq = seq;
+        f.tick.simTime = simTime;
+        f.shootingStars = 0;
+        for (ShootingStar s : stars) f.addShootingStar(s.x, s.y, s.vx, s.vy, s.life, s.maxLife, s.length, s.thickness);
+    }
+
+    /**
+     * Render side: paints f into its image the way a frame on screen looks,
+     * at pixel scale 1. Star motion is linear in time, so advancing this
+     * panel's field to f.time gives the same picture whichever frames it
+     * painted before.
+     */
+    void paintExport(ExportFrame f) {
+        int w = f.image.getWidth();
+        int h = f.image.getHeight();
+        Graphics2D g2 = f.image.createGraphics();
+        try {
+            if (!exportPrimed && raster == null) {
+                // pick the star mode and build any layers before time passes, so every renderer starts the same
+                starField.update(0, w, h);
+                starField.draw(g2);
+            }
+            exportPrimed = true;
+            starField.update(f.time - effectsTime, w, h);
+            effectsTime = f.time;
+
+            stars.clear();
+            double[] s = f.shooting;
+            for (int i = 0, o = 0; i < f.shootingStars; i++, o += ExportFrame.SHOOTING_FIELDS) {
+                stars.add(new ShootingStar(s[o], s[o + 1], s[o + 2], s[o + 3], s[o + 4], s[o + 5], s[o + 6],
+                        (float) s[o + 7]));
+            }
+
+            shown = f.tick;
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, w, h);
+            updateView(w, h);
+            pixelScale = 1;
+            paintScene(g2, w, h, f.alpha);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    // JFR's periodic thread: counts are read without synchronization and may be a frame old
+    private void recordEffectLoad() {
+        GameEvents.EffectLoad e = new GameEvents.EffectLoad();
+        e.particles = shown.particles.count();
+        e.stars = starField.size();
+        e.shootingStars = stars.size();
+        e.stressParticles = stressMode && stress != null ? stress.count() : 0;
+        e.balls = balls != null ? balls.count() : 1;
+        e.quality = qualityLevel;
+        e.commit();
+    }
+
+    // The current resolution at the highest refresh rate the monitor offers, or null if that is the current mode
+    private static DisplayMode fastestDisplayMode(GraphicsDevice device) {
+        if (!device.isDisplayChangeSupported()) return null;
+        DisplayMode current = device.getDisplayMode();
+        DisplayMode best = null;
+        int bestHz = current.getRefreshRate();
+        for (DisplayMode m : device.getDisplayModes()) {
+            if (m.getWidth() != current.getWidth() || m.getHeight() != current.getHeight()) continue;
+            if (m.getBitDepth() != current.getBitDepth() && m.getBitDepth() != DisplayMode.BIT_DEPTH_MULTI
+                    && current.getBitDepth() != DisplayMode.BIT_DEPTH_MULTI) continue;
+            if (m.getRefreshRate() > bestHz) {
+                best = m;
+                bestHz = m.getRefreshRate();
+            }
+        }
+        return best;
+    }
+
+    // Frames (and the default frame budget) follow the display unless they were given
+    private void followRefreshRate(GraphicsDevice device) {
+        if (FPS > 0) return;
+        int hz = device.getDisplayMode().getRefreshRate();
+        if (hz == DisplayMode.REFRESH_RATE_UNKNOWN) hz = 60;
+        frameRate = hz;
+        loop.setFrameRate(hz);
+        ActiveRenderer a = active;
+        if (a != null) a.setFrameRate(hz);
+        if (FRAME_BUDGET_MS == null) budgetRequest = 1_000_000_000L / hz;
+    }
+
+    private static double clamp01(double v) {
+        if (v < 0) return 0;
+        if (v > 1) return 1;
+        return v;
+    }
+
+    private double pulseAlpha(double timeLeft, double duration) {
+        if (timeLeft <= 0 || duration <= 0) return 0;
+        double age = 1.0 - (timeLeft / duration); // 0..1
+        double fadeIn = clamp01(age / 0.20);
+        double fadeOut = clamp01((1.0 - age) / 0.35);
+        return Math.min(fadeIn, fadeOut);
+    }
+
+    private void spawnShootingStar(int w, int h) {
+        GameRandom rnd = shootingRandom;
+        boolean fromLeft = rnd.nextBoolean();
+
+        double startX = fromLeft ? -120 : w + 120;
+        double startY = rnd.nextDouble(h * 0.10, h * 0.60);
+
+        double dir = fromLeft ? 1.0 : -1.0;
+        double speed = rnd.nextDouble(900, 1400);
+
+        double vx = dir * speed;
+        double vy = rnd.nextDouble(180, 420);
+
+        double life = rnd.nextDouble(0.60, 1.10);
+        double length = rnd.nextDouble(120, 220);
+        float thickness = (float) rnd.nextDouble(1.5, 2.6);
+        stars.add(new ShootingStar(startX, startY, vx, vy, life, length, thickness));
+    }
+
+    private void updateShootingStars(double dt, int w, int h) {
+        // lower quality stretches the wait between spawns
+        nextStarIn -= dt * quality.shootingRate();
+        if (nextStarIn <= 0) {
+            spawnShootingStar(w, h);
+            nextStarIn = shootingRandom.nextDouble(2.5, 6.0);
+        }
+
+        for (int i = stars.size() - 1; i >= 0; i--) {
+            ShootingStar s = stars.get(i);
+            s.update(dt);
+            if (s.isDead() || s.x < -250 || s.x > w + 250 || s.y < -250 || s.y > h + 250) {
+                stars.remove(i);
+            }
+        }
+    }
+
+    @Override
+    public void step(double dt) {
+        synchronized (simLock) {
+            tick(dt);
+        }
+    }
+
+    // The active path has its own render thread
+    @Override
+    public void render(double alpha) {
+        if (active == null) repaint();
+    }
+
+    // No usable buffer strategy after all: drop the canvas and let Swing paint the panel
+    private void fallBackToSwing(ActiveRenderer a) {
+        active = null;
+        System.err.println("page flipping unavailable, painting through Swing");
+        SwingUtilities.invokeLater(() -> {
+            remove(a.canvas());
+            revalidate();
+        });
+    }
+
+    private final ActiveRenderer.Scene scene = new ActiveRenderer.Scene() {
+        @Override
+        public void paintFrame(Graphics2D g2, int w, int h) {
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, w, h);
+            drawFrame(g2, w, h);
+        }
+
+        @Override
+        public void presented(long nanos) {
+            if (latency != null) latency.presented(nanos, shown.seq);
+        }
+    };
+
+    // The match is played on the fixed logical field, and every tick ends with a snapshot for the renderer
+    private void tick(double dt) {
+        if (getWidth() <= 0 || getHeight() <= 0) return;
+        int fw = PongSimulation.FIELD_WIDTH;
+        int fh = PongSimulation.FIELD_HEIGHT;
+
+        GameEvents.Tick event = new GameEvents.Tick();
+        event.begin();
+        perf.tickStart();
+        long tickStart = System.nanoTime();
+        long t = perf.mark();
+
+        if (!state.initialized) fireTrail.clear();
+        if (fireTrail.budget() != particleBudget) fireTrail.setBudget(particleBudget);
+
+        // the loop thread says which wall-clock interval this step stands for
+        long end = timer == null && loop.isRunning() ? loop.stepEndNanos() : System.nanoTime();
+        if (latency != null) latency.beginTick(seq + 1);
+        input.advance(end);
+
+        prev.copyFrom(state);
+        if (net != null) {
+            tickNet(fw, fh);
+        } else if (replay != null && replay.next()) {
+            // replay drives the simulation at its recorded size, dt and inputs
+            replay.apply(sim);
+        } else {
+            // keys count for the share of the tick they were held; the AI plays whole ticks
+            double la = aiLeft != null ? axis(aiLeft.decide(state, dt), PongSimulation.LEFT_UP, PongSimulation.LEFT_DOWN)
+                    : input.leftAxis();
+            double ra = aiRight != null ? axis(aiRight.decide(state, dt), PongSimulation.RIGHT_UP, PongSimulation.RIGHT_DOWN)
+                    : input.rightAxis();
+            sim.resize(fw, fh);
+            int bits = bits(la, PongSimulation.LEFT_UP, PongSimulation.LEFT_DOWN)
+                    | bits(ra, PongSimulation.RIGHT_UP, PongSimulation.RIGHT_DOWN);
+            if (bits >= 0) {
+                // whole ticks only: keep the digital step (and the compact log entry)
+                if (recorder != null) recorder.record(bits, dt, fw, fh);
+                sim.step(dt, bits);
+            } else {
+                if (recorder != null) recorder.recordAxes(la, ra, dt, fw, fh);
+                sim.step(dt, la, ra);
+            }
+        }
+        t = perf.lap(PerfOverlay.TICK_SIM, t);
+
+        int half = PongSimulation.BALL_SIZE / 2;
+        fireDue += fireRate * dt;
+        int fire = (int) fireDue;
+        fireDue -= fire;
+        fireTrail.emitFire(state.x + half, state.y + half, state.vx, state.vy, fire);
+        if (balls != null) emitBallTrails(dt);
+        fireTrail.update(dt);
+        perf.lap(PerfOverlay.TICK_PARTICLES, t);
+
+        perf.tickEnd();
+        workNanos += System.nanoTime() - tickStart;
+        publish(dt, end);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = seq;
+            event.dt = dt;
+            event.commit();
+        }
+    }
+
+    private void publish(double dt, long tickEnd) {
+        seq++;
+        simTime += dt;
+
+        FrameSnapshot f = frames.back();
+        f.capture(state, prev, fireTrail, balls);
+        f.seq = seq;
+        f.tickEndNanos = tickEnd;
+        f.simTime = simTime;
+        f.workNanos = workNanos;
+        if (net != null) {
+            f.netRunning = net.isRunning();
+            f.netRtt = net.rttMillis();
+            f.netRollback = net.lastRollback();
+            f.netMaxRollback = net.maxRollback();
+            f.netResim = net.resimMillis();
+            f.netStalls = net.stalls();
+            f.netDesyncs = net.desyncs();
+        }
+        f.publishedNanos = System.nanoTime();
+        frames.publish();
+    }
+
+    // Background effects are decoration only: the renderer advances them by the simulated time it has seen
+    private void updateEffects(double dt, int w, int h) {
+        if (dt <= 0 || w <= 0 || h <= 0) return;
+        long t = perf.mark();
+        starField.update(dt, w, h);
+        t = perf.lap(PerfOverlay.UPDATE_STARS, t);
+        updateShootingStars(dt, w, h);
+        perf.lap(PerfOverlay.UPDATE_SHOOTING, t);
+
+        if (stressMode) {
+            if (stress == null) stress = new ParticleStress(STRESS_PARTICLES, shootingRandom.split());
+            stress.update(dt, w, h);
+        }
+    }
+
+    private static double axis(int bits, int up, int down) {
+        return ((bits & down) != 0 ? 1 : 0) - ((bits & up) != 0 ? 1 : 0);
+    }
+
+    // -1, 0 or 1 as input bits; anything in between is -1 (not expressible as keys)
+    private static int bits(double axis, int up, int down) {
+        if (axis == 0) return 0;
+        if (axis == 1) return down;
+        if (axis == -1) return up;
+        return -1;
+    }
+
+    // Extra balls get one fire particle each, round robin, from half of what the budget sustains
+    private void emitBallTrails(double dt) {
+        int extras = balls.count() - 1;
+        trailDue += fireTrail.budget() / FireTrail.FIRE_MAX_LIFE / 2 * dt;
+        int n = (int) trailDue;
+        trailDue -= n;
+        n = Math.min(extras, n);
+        for (int k = 0; k < n; k++) {
+            int i = 1 + trailCursor;
+            trailCursor = (trailCursor + 1) % extras;
+            double half = balls.size(i) / 2;
+            fireTrail.emitFire(balls.x(i) + half, balls.y(i) + half, balls.vx(i), balls.vy(i), 1);
+        }
+    }
+
+    // Either key set moves our own paddle; the session maps it to left (host) or right.
+    // Netplay stays digital: a key counts for the whole tick if it was down at all.
+    private void tickNet(int w, int h) {
+        int keys = input.touched();
+        int bits = 0;
+        if ((keys & (PongSimulation.LEFT_UP | PongSimulation.RIGHT_UP)) != 0) bits |= NetSession.UP;
+        if ((keys & (PongSimulation.LEFT_DOWN | PongSimulation.RIGHT_DOWN)) != 0) bits |= NetSession.DOWN;
+        try {
+            net.tick(bits, w, h);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // show the field while waiting for the other side
+        if (!net.isRunning()) sim.resize(w, h);
+    }
+
+    private void drawEdgeDamage(Graphics2D g2, int fw, int fh) {
+        double aL = pulseAlpha(shown.state.leftEdgeFlash, PongSimulation.EDGE_FLASH_DURATION);
+        double aR = pulseAlpha(shown.state.rightEdgeFlash, PongSimulation.EDGE_FLASH_DURATION);
+        renderCache.drawEdge(g2, true, fw, fh, aL);
+        renderCache.drawEdge(g2, false, fw, fh, aR);
+    }
+
+    private void drawNet(Graphics2D g2) {
+        FrameSnapshot f = shown;
+        StringBuilder sb = hudText;
+        sb.setLength(0);
+        if (!f.netRunning) {
+            if (net.isHost()) sb.append("waiting for opponent on port ").append(NET_HOST);
+            else sb.append("connecting to ").append(NET_CONNECT);
+        } else {
+            appendFixed(sb.append("rtt "), f.netRtt, 0).append(" ms  rollback ").append(f.netRollback)
+                    .append(" (max ").append(f.netMaxRollback).append(")  resim ");
+            appendFixed(sb, f.netResim, 2).append(" ms  stalls ").append(f.netStalls);
+            if (f.netDesyncs > 0) sb.append("  DESYNC x").append(f.netDesyncs);
+        }
+        drawHudText(g2, 12, 20);
+    }
+
+    private void drawStress(Graphics2D g2) {
+        stress.draw(g2, getWidth(), getHeight());
+
+        StringBuilder sb = hudText;
+        sb.setLength(0);
+        appendGrouped(sb, stress.count()).append(" particles  ");
+        appendGrouped(sb, Math.round(stress.particlesPerSecond())).append(" particles/s  (")
+                .append(stress.kernelName()).append(')');
+        drawHudText(g2, 12, getHeight() - 12);
+    }
+
+    // ball sizes never change, so they are read from the simulation's set; like the particles the balls
+    // are drawn in device space, from an image of their on-screen size, so no blit goes through a transform
+    private void drawBalls(Graphics2D g2, double t) {
+        FrameSnapshot f = shown;
+        AffineTransform at = g2.getTransform();
+        double sx = at.getScaleX(), sy = at.getScaleY(), tx = at.getTranslateX(), ty = at.getTranslateY();
+        boolean device = at.getShearX() == 0 && at.getShearY() == 0;
+        if (device) g2.setTransform(IDENTITY);
+        for (int i = 1; i < balls.count(); i++) {
+            double x = lerp(f.ballPrevX[i], f.ballX[i], t);
+            double y = lerp(f.ballPrevY[i], f.ballY[i], t);
+            if (device) {
+                renderCache.drawBall(g2, (int) (x * sx + tx), (int) (y * sy + ty),
+                        Math.max(1, (int) Math.round(balls.size(i) * (sx + sy) / 2)));
+            } else {
+                renderCache.drawBall(g2, (int) x, (int) y, (int) balls.size(i));
+            }
+        }
+        if (device) g2.setTransform(at);
+    }
+
+    private void drawBallStats(Graphics2D g2) {
+        StringBuilder sb = hudText;
+        sb.setLength(0);
+        sb.append(balls.count()).append(" balls  ").append(shown.ballContacts).append(" contacts  ")
+                .append(shown.ballPairs).append(" pairs tested");
+        drawHudText(g2, 12, getHeight() - 12);
+    }
+
+    // HUD lines change every frame, so they are built in hudText instead of through String.format
+    private void drawHudText(Graphics2D g2, int x, int y) {
+        StringBuilder sb = hudText;
+        int n = sb.length();
+        if (hudChars.length < n) hudChars = new char[n * 2];
+        sb.getChars(0, n, hudChars, 0);
+        g2.setColor(Color.WHITE);
+        g2.drawChars(hudChars, 0, n, x, y);
+    }
+
+    // like %.Nf for 0..3 decimals
+    private static StringBuilder appendFixed(StringBuilder sb, double v, int decimals) {
+        long scale = decimals == 0 ? 1 : decimals == 1 ? 10 : decimals == 2 ? 100 : 1000;
+        long r = Math.round(Math.abs(v) * scale);
+        if (v < 0 && r != 0) sb.append('-');
+        sb.append(r / scale);
+        if (decimals > 0) {
+            sb.append('.');
+            for (long d = scale / 10; d > 0; d /= 10) sb.append((char) ('0' + r / d % 10));
+        }
+        return sb;
+    }
+
+    // like %,d
+    private static StringBuilder appendGrouped(StringBuilder sb, long v) {
+        if (v < 0) {
+            sb.append('-');
+            v = -v;
+        }
+        long group = 1;
+        while (v / group >= 1000) group *= 1000;
+        sb.append(v / group);
+        while (group > 1) {
+            group /= 1000;
+            long g = v / group % 1000;
+            sb.append(',');
+            if (g < 100) sb.append('0');
+            if (g < 10) sb.append('0');
+            sb.append(g);
+        }
+        return sb;
+    }
+
+    private void drawShootingStars(Graphics2D g2) {
+        for (ShootingStar s : stars) s.draw(g2, streakPaint);
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        // the canvas covers the panel and is drawn by the render thread
+        if (active != null) return;
+
+        drawFrame((Graphics2D) g, getWidth(), getHeight());
+
+        // Swing copies the back buffer to the screen right after this returns
+        if (latency != null) {
+            Toolkit.getDefaultToolkit().sync();
+            latency.presented(System.nanoTime(), shown.seq);
+        }
+    }
+
+    // One frame on either path, on whichever thread renders: the latest snapshot, never the live simulation
+    private void drawFrame(Graphics2D g2, int w, int h) {
+        GameEvents.Frame event = new GameEvents.Frame();
+        event.begin();
+        perf.frameStart();
+        long start = System.nanoTime();
+
+        FrameSnapshot f = frames.latest();
+        if (f.seq != shown.seq) perf.handoff(start - f.publishedNanos);
+        shown = f;
+
+        long budget = budgetRequest;
+        if (budget > 0 && budget != quality.budgetNanos()) quality.setBudgetNanos(budget);
+        quality.addTickNanos(f.workNanos - seenWorkNanos);
+        seenWorkNanos = f.workNanos;
+
+        // without the loop's accumulator (timer loop, or not running) draw the latest state
+        double t = timer != null || !loop.isRunning() ? 1
+                : clamp01((start - f.tickEndNanos) / 1_000_000_000.0 / loop.tickSeconds());
+
+        updateEffects(f.simTime - effectsTime, w, h);
+        effectsTime = f.simTime;
+
+        updateView(w, h);
+        double scale = quality.renderScale();
+        if (scale < 1 && w > 0 && h > 0) paintLowRes(g2, w, h, scale, t);
+        else {
+            pixelScale = 1;
+            paintScene(g2, w, h, t);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = shown.seq;
+            event.quality = quality.level();
+            event.renderScale = quality.renderScale();
+            event.commit();
+        }
+        if (quality.frame(System.nanoTime() - start)) applyQuality();
+        perf.frameEnd();
+
+        perf.draw(g2, 10, getHeight() - 360, shown.particles.count(), starField.size(), stars.size(), quality);
+    }
+
+    // Uniform scale that fits the playfield into the panel, centered
+    private void updateView(int w, int h) {
+        int fw = fieldWidth();
+        int fh = fieldHeight();
+        viewScale = Math.max(1e-3, Math.min(w / (double) fw, h / (double) fh));
+        viewX = (w - fw * viewScale) / 2;
+        viewY = (h - fh * viewScale) / 2;
+    }
+
+    // a replay keeps the size it was recorded at
+    private int fieldWidth() {
+        return shown.state.initialized ? shown.state.width : PongSimulation.FIELD_WIDTH;
+    }
+
+    private int fieldHeight() {
+        return shown.state.initialized ? shown.state.height : PongSimulation.FIELD_HEIGHT;
+    }
+
+    // Dynamic resolution: paint into a smaller image and let the blit upscale it
+    private void paintLowRes(Graphics2D g2, int w, int h, double scale, double t) {
+        int lw = Math.max(1, (int) Math.ceil(w * scale));
+        int lh = Math.max(1, (int) Math.ceil(h * scale));
+        pixelScale = lw / (double) w;
+        GraphicsConfiguration gc = g2.getDeviceConfiguration();
+
+        Image target;
+        if (active != null && gc != null) {
+            // accelerated layer: repaint it until it survives a contents loss
+            do {
+                lowResVolatile = ActiveRenderer.layer(lowResVolatile, gc, lw, lh);
+                paintLowResInto(lowResVolatile.createGraphics(), w, h, lw, lh, t);
+            } while (lowResVolatile.contentsLost());
+            target = lowResVolatile;
+        } else {
+            target = lowResImage(gc, lw, lh);
+            paintLowResInto(((BufferedImage) target).createGraphics(), w, h, lw, lh, t);
+        }
+
+        // bilinear costs more than the smaller frame saves on the software pipeline (6 ms vs 0.4 ms at 960x540)
+        boolean smooth = active != null || gc != null && gc.getImageCapabilities().isAccelerated();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, smooth
+                ? RenderingHints.VALUE_INTERPOLATION_BILINEAR : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2.drawImage(target, 0, 0, w, h, 0, 0, lw, lh, null);
+    }
+
+    // only grows, so a window drag does not allocate every frame
+    private BufferedImage lowResImage(GraphicsConfiguration gc, int lw, int lh) {
+        if (lowRes == null || lowRes.getWidth() < lw || lowRes.getHeight() < lh) {
+            int iw = Math.max(lw, lowRes != null ? lowRes.getWidth() : 0);
+            int ih = Math.max(lh, lowRes != null ? lowRes.getHeight() : 0);
+            lowRes = gc != null ? gc.createCompatibleImage(iw, ih) : new BufferedImage(iw, ih, BufferedImage.TYPE_INT_RGB);
+        }
+        return lowRes;
+    }
+
+    private void paintLowResInto(Graphics2D lg, int w, int h, int lw, int lh, double t) {
+        lg.setColor(getBackground());
+        lg.fillRect(0, 0, lw, lh);
+        lg.scale(pixelScale, lh / (double) h);
+        paintScene(lg, w, h, t);
+        lg.dispose();
+    }
+
+    /**
+     * Background (stars, shooting stars, stress particles) in panel pixels,
+     * gameplay (particles, balls, paddles, edge damage) in playfield units
+     * through the view transform, HUD in panel pixels again.
+     */
+    private void paintScene(Graphics2D g2, int w, int h, double t) {
+        boolean aa = quality.antialias();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                aa ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                aa ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING,
+                aa ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+
+        AffineTransform base = g2.getTransform();
+        PongState state = shown.state;
+        PongState prev = shown.prev;
+        FireTrail particles = shown.particles;
+        boolean stressOn = stressMode && stress != null;
+
+        // shake is in playfield units
+        double shakeX = state.shakeOffsetX * viewScale;
+        double shakeY = state.shakeOffsetY * viewScale;
+
+        long pt = perf.mark();
+
+        if (raster != null) {
+            // effects binned and rasterized in parallel, composited as one image
+            double ps = pixelScale;
+            raster.begin((int) Math.round(w * ps), (int) Math.round(h * ps));
+            raster.setTransform(ps, shakeX * ps, shakeY * ps);
+            starField.raster(raster);
+            pt = perf.lap(PerfOverlay.PAINT_STARS, pt);
+            for (ShootingStar s : stars) s.raster(raster);
+            pt = perf.lap(PerfOverlay.PAINT_SHOOTING, pt);
+            if (!stressOn) {
+                raster.setTransform(ps * viewScale, (viewX + shakeX) * ps, (viewY + shakeY) * ps);
+                particles.raster(raster);
+            }
+            g2.drawImage(raster.finish(), 0, 0, w, h, null);
+            if (stressOn) drawStress(g2);
+            pt = perf.lap(PerfOverlay.PAINT_PARTICLES, pt);
+            enterField(g2, shakeX, shakeY);
+        } else {
+            // background
+            g2.translate(shakeX, shakeY);
+            starField.draw(g2);
+            pt = perf.lap(PerfOverlay.PAINT_STARS, pt);
+            drawShootingStars(g2);
+            pt = perf.lap(PerfOverlay.PAINT_SHOOTING, pt);
+            g2.setTransform(base);
+
+            // particles behind ball
+            if (stressOn) drawStress(g2);
+            enterField(g2, shakeX, shakeY);
+            if (!stressOn) particles.draw(g2);
+            pt = perf.lap(PerfOverlay.PAINT_PARTICLES, pt);
+        }
+
+        renderCache.validate(g2);
+        if (balls != null) drawBalls(g2, t);
+
+        // ball
+        g2.setColor(Color.RED);
+        int ball = PongSimulation.BALL_SIZE;
+        g2.fillOval((int) lerp(prev.x, state.x, t), (int) lerp(prev.y, state.y, t), ball, ball);
+
+        // paddles + glow + nicer shape
+        int pw = PongSimulation.PADDLE_WIDTH;
+        int ph = PongSimulation.PADDLE_HEIGHT;
+
+        int leftPx = (int) PongSimulation.leftPaddleX();
+        int leftPy = (int) lerp(prev.leftPaddleY, state.leftPaddleY, t);
+
+        int rightPx = (int) PongSimulation.rightPaddleX(state.width);
+        int rightPy = (int) lerp(prev.rightPaddleY, state.rightPaddleY, t);
+
+        renderCache.drawPaddleGlow(g2, leftPx, leftPy, pw, ph, state.leftGlowTime / PongSimulation.GLOW_DURATION);
+        renderCache.drawPaddleGlow(g2, rightPx, rightPy, pw, ph, state.rightGlowTime / PongSimulation.GLOW_DURATION);
+
+        renderCache.drawPaddle(g2, leftPx, leftPy, pw, ph, true);
+        renderCache.drawPaddle(g2, rightPx, rightPy, pw, ph, false);
+        pt = perf.lap(PerfOverlay.PAINT_PADDLES, pt);
+
+        // field edges (stable)
+        g2.setTransform(base);
+        enterField(g2, 0, 0);
+        int fw = fieldWidth();
+        int fh = fieldHeight();
+        drawEdgeDamage(g2, fw, fh);
+        if (viewX >= 1 || viewY >= 1) {
+            // letterboxed: show where the walls are
+            g2.setColor(FIELD_EDGE);
+            g2.drawRect(0, 0, fw - 1, fh - 1);
+        }
+
+        // HUD layer (stable)
+        g2.setTransform(base);
+        renderCache.drawScore(g2, w / 2, state.score1, state.score2);
+        if (net != null) drawNet(g2);
+        if (balls != null) drawBallStats(g2);
+        perf.lap(PerfOverlay.PAINT_HUD, pt);
+    }
+
+    private void enterField(Graphics2D g2, double shakeX, double shakeY) {
+        g2.translate(viewX + shakeX, viewY + shakeY);
+        g2.scale(viewScale, viewScale);
+    }
+
+    // --- Sternschnuppe (pure VFX) ---
+    private static class ShootingStar {
+        double x, y;
+        double vx, vy;
+        double life;
+        final double maxLife;
+        final double length;
+        final float thickness;
+
+        final BasicStroke stroke;
+
+        ShootingStar(double x, double y, double vx, double vy, double life, double length, float thickness) {
+            this(x, y, vx, vy, life, life, length, thickness);
+        }
+
+        ShootingStar(double x, double y, double vx, double vy, double life, double maxLife, double length,
+                     float thickness) {
+            this.x = x;
+            this.y = y;
+            this.vx = vx;
+            this.vy = vy;
+            this.life = life;
+            this.maxLife = maxLife;
+
+            this.length = length;
+            this.thickness = thickness;
+
+            stroke = new BasicStroke(thickness, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+        }
+
+        void update(double dt) {
+            x += vx * dt;
+            y += vy * dt;
+            life -= dt;
+        }
+
+        boolean isDead() { return life <= 0; }
+
+        void raster(SoftwareRasterizer r) {
+            double t = 1.0 - (life / maxLife);
+            double a = Math.min(clamp01(t / 0.15), clamp01((1.0 - t) / 0.35));
+
+            double sp = Math.hypot(vx, vy);
+            double dx = (sp > 0.0001) ? (vx / sp) : 1.0;
+            double dy = (sp > 0.0001) ? (vy / sp) : 0.0;
+
+            r.line(x, y, x - dx * length, y - dy * length, thickness, 0xFFFFFF,
+                    120 / 255.0 * a, 0, SoftwareRasterizer.BLEND_OVER);
+            r.disc(x, y, 2, 0, 0xFFFFFF, 140 / 255.0 * a, SoftwareRasterizer.BLEND_OVER);
+        }
+
+        void draw(Graphics2D g2, StreakPaint streak) {
+            double t = 1.0 - (life / maxLife);
+            double fadeIn = clamp01(t / 0.15);
+            double fadeOut = clamp01((1.0 - t) / 0.35);
+            double a = Math.min(fadeIn, fadeOut);
+
+            int alphaHead = (int) Math.round(120 * a);
+
+            double sp = Math.hypot(vx, vy);
+            double dx = (sp > 0.0001) ? (vx / sp) : 1.0;
+            double dy = (sp > 0.0001) ? (vy / sp) : 0.0;
+
+            double x2 = x - dx * length;
+            double y2 = y - dy * length;
+
+            Stroke oldS = g2.getStroke();
+            Paint oldP = g2.getPaint();
+            Composite oldC = g2.getComposite();
+
+            g2.setStroke(stroke);
+            streak.draw(g2, x, y, x2, y2, 0xFFFFFF, alphaHead);
+
+            g2.setColor(Color.WHITE);
+            g2.setComposite(OrbitStar.ALPHA[(int) Math.round(140 * a)]);
+            g2.fillOval((int) (x - 2), (int) (y - 2), 4, 4);
+
+            g2.setComposite(oldC);
+            g2.setStroke(oldS);
+            g2.setPaint(oldP);
+        }
+
+        private static double clamp01(double v) {
+            if (v < 0) return 0;
+            if (v > 1) return 1;
+            return v;
+        }
+    }
+}
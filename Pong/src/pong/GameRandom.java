@@ -0,0 +1,76 @@
+package pong;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Small seeded, splittable RNG (SplitMix64). Each subsystem gets its own
+ * instance split off a root, so the draws of one subsystem never shift the
+ * sequence of another and a match can be reproduced from its seed.
+ *
+ * The static {@link #next(long)}/{@link #mix64(long)} pair lets state
+ * objects keep the generator as a plain long (see PongState.rng).
+ */
+public final class GameRandom {
+
+    static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    /** Unseeded instance for code paths that don't need to be reproducible. */
+    public GameRandom() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /** A new, independent generator; advances this one by one draw. */
+    public GameRandom split() {
+        return new GameRandom(mix64(nextLong()));
+    }
+
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    public double nextDouble() {
+        return toDouble(nextLong());
+    }
+
+    public double nextDouble(double lo, double hi) {
+        return lo + (hi - lo) * nextDouble();
+    }
+
+    public float nextFloat(float lo, float hi) {
+        return lo + (hi - lo) * (float) nextDouble();
+    }
+
+    /** Uniform int in [lo, hi). */
+    public int nextInt(int lo, int hi) {
+        return lo + (int) ((hi - lo) * nextDouble());
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    // --- stateless helpers for generators stored as a long field ---
+
+    /** Advances a SplitMix64 state by one step. */
+    static long next(long state) {
+        return state + GOLDEN_GAMMA;
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Maps 64 random bits to a double in [0, 1). */
+    static double toDouble(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,102 @@
+package pong;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.SwingUtilities;
+
+/**
+ * Input-to-present latency. Every input event a tick consumes waits here
+ * until a frame showing that tick (or a later one) has been presented; the
+ * time from the event's stamp to that present is one sample. Percentiles
+ * over the last {@link #SAMPLES} samples are printed every few seconds.
+ *
+ * A probe thread injects synthetic events through the EDT at random
+ * intervals (stamped before they are queued on the EDT, like a key press
+ * that waits for dispatch), so runs need no one at the keyboard and
+ * different loop and present configurations can be compared. Probes move
+ * nothing; real key presses are measured too.
+ *
+ * Ticks and frames run on different threads and only meet here, so the
+ * methods are synchronized; that is cheap enough for a diagnostic mode.
+ */
+final class InputLatency {
+
+    private static final int SAMPLES = 1024;
+    private static final int MAX_PENDING = 256;
+    private static final long REPORT_NANOS = 5_000_000_000L;
+
+    private final String config;
+
+    private final long[] pending = new long[MAX_PENDING];
+    private final long[] pendingTick = new long[MAX_PENDING];
+    private int pendingCount;
+    private long tick;
+
+    private final long[] samples = new long[SAMPLES];
+    private final long[] sorted = new long[SAMPLES];
+    private int next, filled;
+    private long lastReport = System.nanoTime();
+
+    /** @param config printed with every report, e.g. the loop and present mode */
+    InputLatency(String config) {
+        this.config = config;
+    }
+
+    /** Events consumed from now on belong to this simulation tick. */
+    synchronized void beginTick(long tick) {
+        this.tick = tick;
+    }
+
+    synchronized void consumed(long eventNanos) {
+        if (pendingCount == MAX_PENDING) return;
+        pending[pendingCount] = eventNanos;
+        pendingTick[pendingCount++] = tick;
+    }
+
+    /** A frame showing the state after tick shownTick reached the screen at nanos. */
+    synchronized void presented(long nanos, long shownTick) {
+        int keep = 0;
+        for (int i = 0; i < pendingCount; i++) {
+            if (pendingTick[i] > shownTick) {
+                // not on screen yet
+                pending[keep] = pending[i];
+                pendingTick[keep++] = pendingTick[i];
+                continue;
+            }
+            samples[next] = nanos - pending[i];
+            next = (next + 1) % SAMPLES;
+            if (filled < SAMPLES) filled++;
+        }
+        pendingCount = keep;
+
+        if (nanos - lastReport >= REPORT_NANOS && filled > 0) {
+            lastReport = nanos;
+            System.out.println(report());
+        }
+    }
+
+    synchronized String report() {
+        System.arraycopy(samples, 0, sorted, 0, filled);
+        Arrays.sort(sorted, 0, filled);
+        return String.format("input->present [%s] p50 %.2f ms  p90 %.2f ms  p99 %.2f ms  max %.2f ms  (%d samples)",
+                config, percentile(0.50), percentile(0.90), percentile(0.99), sorted[filled - 1] / 1e6, filled);
+    }
+
+    private double percentile(double p) {
+        return sorted[(int) ((filled - 1) * p)] / 1e6;
+    }
+
+    /** Starts a daemon thread that feeds probes into the queue via the EDT every 15..60 ms. */
+    static void startProbe(InputQueue queue) {
+        Thread t = new Thread(() -> {
+            while (true) {
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(15_000_000L, 60_000_000L));
+                long stamp = System.nanoTime();
+                SwingUtilities.invokeLater(() -> queue.probe(stamp));
+            }
+        }, "latency-probe");
+        t.setDaemon(true);
+        t.start();
+    }
+}
@@ -0,0 +1,159 @@
+package pong;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Key presses and releases on their way from the EDT to the simulation,
+ * each stamped with System.nanoTime the moment its key binding runs.
+ *
+ * A single-producer/single-consumer ring: the EDT only moves the head, the
+ * loop thread only the tail, both with ordered (lazySet) writes, so neither
+ * side ever blocks. Once per tick the consumer integrates the events inside
+ * the tick's wall-clock interval into exact hold times per key, so a tap
+ * shorter than a tick still moves the paddle by as long as it was held.
+ *
+ * If the ring ever fills up (the loop thread stalled for a long time) new
+ * events are dropped and the consumer falls back to the keys the producer
+ * last saw held.
+ */
+final class InputQueue {
+
+    // event codes: an input bit (PongSimulation.LEFT_UP, ...) plus RELEASE, or PROBE
+    static final int RELEASE = 1 << 8;
+    static final int PROBE = 1 << 9; // latency measurement only, moves nothing
+
+    private static final int CAPACITY = 1024; // power of two
+    private static final int KEYS = 4;
+
+    private final long[] times = new long[CAPACITY];
+    private final int[] codes = new int[CAPACITY];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    // producer side
+    private int producerHeld;
+    private volatile int lastHeld;
+    private volatile boolean overflow;
+
+    // consumer side
+    private int held;
+    private int touched;
+    private long windowEnd = -1;
+    private long window;
+    private final long[] heldNanos = new long[KEYS];
+    private InputLatency latency;
+
+    /** Gets every consumed event's timestamp, or null. Consumer side. */
+    void setLatency(InputLatency latency) {
+        this.latency = latency;
+    }
+
+    // --- producer (EDT) ---
+
+    void press(int key) {
+        offer(key, System.nanoTime());
+    }
+
+    void release(int key) {
+        offer(key | RELEASE, System.nanoTime());
+    }
+
+    /** Latency probe that was created at nanos, e.g. before it was handed to the EDT. */
+    void probe(long nanos) {
+        offer(PROBE, nanos);
+    }
+
+    private void offer(int code, long nanos) {
+        if ((code & PROBE) == 0) {
+            int key = code & ~RELEASE;
+            producerHeld = (code & RELEASE) != 0 ? producerHeld & ~key : producerHeld | key;
+            lastHeld = producerHeld;
+        }
+
+        long h = head.get();
+        if (h - tail.get() >= CAPACITY) {
+            overflow = true;
+            return;
+        }
+        int i = (int) h & (CAPACITY - 1);
+        times[i] = nanos;
+        codes[i] = code;
+        head.lazySet(h + 1);
+    }
+
+    // --- consumer (loop thread) ---
+
+    /**
+     * Integrates all events up to end (System.nanoTime) as one tick that
+     * starts where the previous one ended. Events after end stay queued for
+     * the next tick.
+     */
+    void advance(long end) {
+        long start = windowEnd < 0 ? end : windowEnd;
+        if (end < start) end = start;
+        windowEnd = end;
+        window = end - start;
+        Arrays.fill(heldNanos, 0);
+        touched = held;
+
+        long cursor = start;
+        long t = tail.get();
+        long h = head.get();
+        for (; t < h; t++) {
+            int i = (int) t & (CAPACITY - 1);
+            long time = times[i];
+            if (time > end) break;
+
+            // late or out-of-order stamps count from where we are
+            long at = Math.max(cursor, time);
+            accumulate(cursor, at);
+            cursor = at;
+
+            int code = codes[i];
+            if ((code & PROBE) == 0) {
+                int key = code & ~RELEASE;
+                if ((code & RELEASE) != 0) {
+                    held &= ~key;
+                } else {
+                    held |= key;
+                    touched |= key;
+                }
+            }
+            if (latency != null) latency.consumed(time);
+        }
+        tail.lazySet(t);
+        accumulate(cursor, end);
+
+        if (overflow) {
+            overflow = false;
+            held = lastHeld;
+        }
+    }
+
+    private void accumulate(long from, long to) {
+        long d = to - from;
+        if (d <= 0 || held == 0) return;
+        for (int k = 0; k < KEYS; k++) {
+            if ((held & (1 << k)) != 0) heldNanos[k] += d;
+        }
+    }
+
+    /** Share of the last tick the key was held, 0..1. */
+    double hold(int key) {
+        if (window <= 0) return (held & key) != 0 ? 1 : 0;
+        return heldNanos[Integer.numberOfTrailingZeros(key)] / (double) window;
+    }
+
+    /** -1 (up the whole tick) .. +1 (down the whole tick). */
+    double leftAxis() {
+        return hold(PongSimulation.LEFT_DOWN) - hold(PongSimulation.LEFT_UP);
+    }
+
+    double rightAxis() {
+        return hold(PongSimulation.RIGHT_DOWN) - hold(PongSimulation.RIGHT_UP);
+    }
+
+    /** Keys held at any time during the last tick. */
+    int touched() { return touched; }
+}
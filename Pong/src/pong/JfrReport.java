@@ -0,0 +1,245 @@
+package pong;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes a flight recording made with the game's events (see
+ * {@link GameEvents} and Pong/jfr/pong.jfc): frame and tick time
+ * percentiles, frames over budget, the phases that cost the most, paddle
+ * hits and scores, star-field resizes and layer rebuilds, fullscreen
+ * toggles, effect load and GC pauses over the same stretch.
+ *
+ * {@code JfrReport <recording.jfr> [frameBudgetMs]} (default 16.67 ms).
+ */
+public final class JfrReport {
+
+    // lines printed per list of events (scores, resizes, toggles)
+    private static final int MAX_LISTED = 20;
+
+    private final LongSamples frameWork = new LongSamples();
+    private final LongSamples frameInterval = new LongSamples();
+    private final LongSamples tickWork = new LongSamples();
+    private final LongSamples tickInterval = new LongSamples();
+    private final Map<String, LongSamples> phases = new HashMap<>();
+    private final LongSamples layerBuilds = new LongSamples();
+    private final LongSamples gcPauses = new LongSamples();
+
+    private Instant lastFrame, lastTick, first, last;
+    private final int[] qualityFrames = new int[8];
+    private double minScale = Double.MAX_VALUE, maxScale;
+
+    private int hitsLeft, hitsRight;
+    private double hitSpeedSum, maxHitSpeed, maxSpin;
+    private final List<String> scores = new ArrayList<>();
+    private final List<String> resizes = new ArrayList<>();
+    private final List<String> fullscreen = new ArrayList<>();
+
+    private long loadSamples;
+    private long particleSum, stressSum;
+    private int maxParticles, maxStars, maxShooting, maxStress, maxBalls;
+
+    void add(RecordedEvent e) {
+        Instant t = e.getStartTime();
+        if (first == null || t.isBefore(first)) first = t;
+        if (last == null || e.getEndTime().isAfter(last)) last = e.getEndTime();
+
+        switch (e.getEventType().getName()) {
+            case "pong.Frame" -> {
+                frameWork.add(e.getDuration().toNanos());
+                if (lastFrame != null) frameInterval.add(Duration.between(lastFrame, t).toNanos());
+                lastFrame = t;
+                int q = e.getInt("quality");
+                if (q >= 0 && q < qualityFrames.length) qualityFrames[q]++;
+                double scale = e.getDouble("renderScale");
+                minScale = Math.min(minScale, scale);
+                maxScale = Math.max(maxScale, scale);
+            }
+            case "pong.Tick" -> {
+                tickWork.add(e.getDuration().toNanos());
+                if (lastTick != null) tickInterval.add(Duration.between(lastTick, t).toNanos());
+                lastTick = t;
+            }
+            case "pong.Phase" -> phases.computeIfAbsent(e.getString("phase"), k -> new LongSamples())
+                    .add(e.getLong("nanos"));
+            case "pong.PaddleHit" -> {
+                if ("left".equals(e.getString("side"))) hitsLeft++;
+                else hitsRight++;
+                double speed = e.getDouble("speed");
+                hitSpeedSum += speed;
+                maxHitSpeed = Math.max(maxHitSpeed, speed);
+                maxSpin = Math.max(maxSpin, Math.abs(e.getDouble("spin")));
+            }
+            case "pong.Score" -> scores.add(String.format("%s  %s %d:%d", clock(t), e.getString("scorer"),
+                    e.getInt("score1"), e.getInt("score2")));
+            case "pong.StarFieldResize" -> resizes.add(String.format("%s  %dx%d -> %dx%d, %d stars", clock(t),
+                    e.getInt("oldWidth"), e.getInt("oldHeight"), e.getInt("width"), e.getInt("height"),
+                    e.getInt("stars")));
+            case "pong.StarLayers" -> layerBuilds.add(e.getDuration().toNanos());
+            case "pong.Fullscreen" -> fullscreen.add(String.format("%s  %s, %d Hz  (%.2f ms)", clock(t),
+                    e.getBoolean("fullscreen") ? "fullscreen" : "windowed", e.getInt("refreshRate"),
+                    e.getDuration().toNanos() / 1e6));
+            case "pong.EffectLoad" -> {
+                loadSamples++;
+                particleSum += e.getInt("particles");
+                stressSum += e.getInt("stressParticles");
+                maxParticles = Math.max(maxParticles, e.getInt("particles"));
+                maxStars = Math.max(maxStars, e.getInt("stars"));
+                maxShooting = Math.max(maxShooting, e.getInt("shootingStars"));
+                maxStress = Math.max(maxStress, e.getInt("stressParticles"));
+                maxBalls = Math.max(maxBalls, e.getInt("balls"));
+            }
+            case "jdk.GCPhasePause" -> gcPauses.add(e.getDuration().toNanos());
+            default -> { }
+        }
+    }
+
+    private String clock(Instant t) {
+        return String.format("%8.3fs", first != null ? Duration.between(first, t).toNanos() / 1e9 : 0.0);
+    }
+
+    void print(double budgetMs) {
+        double secs = first != null ? Duration.between(first, last).toNanos() / 1e9 : 0;
+        System.out.printf("%.1f s recorded%n%n", secs);
+
+        if (frameWork.size() == 0) {
+            System.out.println("no pong.Frame events - was the recording made with Pong/jfr/pong.jfc?");
+        } else {
+            long budget = (long) (budgetMs * 1e6);
+            System.out.printf("frames %,d  (%.1f fps)%n", frameWork.size(), frameWork.size() / Math.max(secs, 1e-9));
+            System.out.println("  work      " + frameWork.summary());
+            if (frameInterval.size() > 0) System.out.println("  interval  " + frameInterval.summary());
+            System.out.printf("  over %.2f ms budget: %,d work (%.2f%%), %,d intervals (%.2f%%)%n", budgetMs,
+                    frameWork.countOver(budget), 100.0 * frameWork.countOver(budget) / frameWork.size(),
+                    frameInterval.countOver(budget),
+                    100.0 * frameInterval.countOver(budget) / Math.max(1, frameInterval.size()));
+            StringBuilder q = new StringBuilder("  quality ");
+            for (int i = 0; i < qualityFrames.length; i++) {
+                if (qualityFrames[i] > 0) q.append(String.format(" %d:%.1f%%", i, 100.0 * qualityFrames[i] / frameWork.size()));
+            }
+            System.out.printf("%s   render scale %.2f..%.2f%n", q, minScale, maxScale);
+        }
+
+        if (tickWork.size() > 0) {
+            System.out.printf("%nticks %,d  (%.1f Hz)%n", tickWork.size(), tickWork.size() / Math.max(secs, 1e-9));
+            System.out.println("  work      " + tickWork.summary());
+            if (tickInterval.size() > 0) System.out.println("  interval  " + tickInterval.summary());
+        }
+
+        if (!phases.isEmpty()) {
+            System.out.println();
+            System.out.println("phase                  total ms    share     mean ms    p99 ms    max ms     count");
+            List<Map.Entry<String, LongSamples>> hot = new ArrayList<>(phases.entrySet());
+            hot.sort((a, b) -> Long.compare(b.getValue().total(), a.getValue().total()));
+            long all = 0;
+            for (Map.Entry<String, LongSamples> p : hot) all += p.getValue().total();
+            for (Map.Entry<String, LongSamples> p : hot) {
+                LongSamples s = p.getValue();
+                System.out.printf("%-20s %10.1f %7.1f%% %10.3f %9.3f %9.3f %9d%n", p.getKey(), s.total() / 1e6,
+                        100.0 * s.total() / Math.max(1, all), s.mean() / 1e6, s.percentile(0.99) / 1e6,
+                        s.max() / 1e6, s.size());
+            }
+        }
+
+        int hits = hitsLeft + hitsRight;
+        System.out.printf("%npaddle hits %d (left %d, right %d)", hits, hitsLeft, hitsRight);
+        if (hits > 0) System.out.printf("  speed mean %.0f max %.0f px/s  max spin %.0f px/s",
+                hitSpeedSum / hits, maxHitSpeed, maxSpin);
+        System.out.println();
+        System.out.printf("scores %d%n", scores.size());
+        printList(scores);
+
+        System.out.printf("%nstar field resizes %d%n", resizes.size());
+        printList(resizes);
+        System.out.printf("star layer rebuilds %d", layerBuilds.size());
+        if (layerBuilds.size() > 0) System.out.printf("  total %.1f ms  max %.2f ms", layerBuilds.total() / 1e6,
+                layerBuilds.max() / 1e6);
+        System.out.println();
+        System.out.printf("fullscreen toggles %d%n", fullscreen.size());
+        printList(fullscreen);
+
+        if (loadSamples > 0) {
+            System.out.printf("%neffect load (%d samples)  particles mean %d max %d  stress mean %d max %d"
+                    + "  stars max %d  shooting max %d  balls max %d%n", loadSamples, particleSum / loadSamples,
+                    maxParticles, stressSum / loadSamples, maxStress, maxStars, maxShooting, maxBalls);
+        }
+        if (gcPauses.size() > 0) {
+            System.out.printf("%ngc pauses %d  total %.1f ms  p99 %.2f ms  max %.2f ms%n", gcPauses.size(),
+                    gcPauses.total() / 1e6, gcPauses.percentile(0.99) / 1e6, gcPauses.max() / 1e6);
+        }
+    }
+
+    private static void printList(List<String> lines) {
+        for (int i = 0; i < Math.min(lines.size(), MAX_LISTED); i++) System.out.println("  " + lines.get(i));
+        if (lines.size() > MAX_LISTED) System.out.printf("  ... %d more%n", lines.size() - MAX_LISTED);
+    }
+
+    // Growable array of nanosecond values, sorted lazily for percentiles.
+    private static final class LongSamples {
+        private long[] values = new long[256];
+        private int size;
+        private long total;
+        private boolean sorted = true;
+
+        void add(long v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+            total += v;
+            sorted = false;
+        }
+
+        int size() { return size; }
+
+        long total() { return total; }
+
+        double mean() { return size > 0 ? (double) total / size : 0; }
+
+        long max() { return percentile(1.0); }
+
+        long percentile(double p) {
+            if (size == 0) return 0;
+            if (!sorted) {
+                Arrays.sort(values, 0, size);
+                sorted = true;
+            }
+            return values[(int) ((size - 1) * p)];
+        }
+
+        long countOver(long limit) {
+            long n = 0;
+            for (int i = 0; i < size; i++) if (values[i] > limit) n++;
+            return n;
+        }
+
+        String summary() {
+            return String.format("p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f ms", percentile(0.50) / 1e6,
+                    percentile(0.90) / 1e6, percentile(0.99) / 1e6, percentile(0.999) / 1e6, max() / 1e6);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage: JfrReport <recording.jfr> [frameBudgetMs]");
+            System.exit(2);
+        }
+        double budget = args.length > 1 ? Double.parseDouble(args[1]) : 1000.0 / 60;
+        if (budget <= 0) throw new IllegalArgumentException("frame budget must be > 0: " + budget);
+
+        // events in a chunk come roughly, not strictly, in time order; sort so intervals are right
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of(args[0]));
+        events.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+
+        JfrReport report = new JfrReport();
+        for (RecordedEvent e : events) report.add(e);
+        report.print(budget);
+    }
+}
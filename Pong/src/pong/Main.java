@@ -1,3 +1,5 @@
+package pong;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -0,0 +1,121 @@
+package pong;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a match as a compact binary log: the simulation seed, then one
+ * record per tick with the input bits and - only when they change - the dt
+ * and playfield size. A steady match at a fixed tick rate costs one byte per
+ * tick. Ticks where a key changed mid-tick store the paddle axes instead of
+ * input bits. {@link MatchReplay} reads it back.
+ *
+ * <pre>
+ * header:  long MAGIC, int VERSION, long seed
+ * tick:    byte flags|inputs  [double dt if FLAG_DT]  [int w, int h if FLAG_SIZE]
+ *          [double leftAxis, double rightAxis if FLAG_AXES]
+ * trailer: byte END, long ticks, long final state hash
+ * </pre>
+ */
+public final class MatchRecorder implements Closeable {
+
+    static final long MAGIC = 0x504F4E4752454331L; // "PONGREC1"
+    static final int VERSION = 3; // 3: FLAG_AXES; 2: swept ball collision, version 1 logs no longer replay identically
+    static final int MIN_VERSION = 2;
+
+    static final int INPUT_MASK = 0x0F;
+    static final int FLAG_DT = 0x10;
+    static final int FLAG_SIZE = 0x20;
+    static final int FLAG_AXES = 0x40;
+    static final byte END = (byte) 0xFF;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+
+    private double lastDt = Double.NaN;
+    private int lastW = -1, lastH = -1;
+    private long ticks = 0;
+    private boolean closed = false;
+
+    public MatchRecorder(Path file, long seed) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buf.putLong(MAGIC).putInt(VERSION).putLong(seed);
+    }
+
+    public long ticks() { return ticks; }
+
+    /** Records one tick; call with exactly what is passed to resize/step. */
+    public void record(int inputs, double dt, int w, int h) {
+        if (closed) return;
+        writeTick(inputs & INPUT_MASK, dt, w, h);
+    }
+
+    /** Records a tick stepped with paddle axes, see {@link PongSimulation#step(double, double, double)}. */
+    public void recordAxes(double leftAxis, double rightAxis, double dt, int w, int h) {
+        if (closed) return;
+        writeTick(FLAG_AXES, dt, w, h);
+        ensure(16);
+        buf.putDouble(leftAxis).putDouble(rightAxis);
+    }
+
+    private void writeTick(int flags, double dt, int w, int h) {
+        // compare bits, not values, so the replay gets the exact same double
+        boolean dtChanged = Double.doubleToRawLongBits(dt) != Double.doubleToRawLongBits(lastDt);
+        boolean sizeChanged = w != lastW || h != lastH;
+        if (dtChanged) flags |= FLAG_DT;
+        if (sizeChanged) flags |= FLAG_SIZE;
+
+        ensure(1 + 8 + 8);
+        buf.put((byte) flags);
+        if (dtChanged) {
+            buf.putDouble(dt);
+            lastDt = dt;
+        }
+        if (sizeChanged) {
+            buf.putInt(w).putInt(h);
+            lastW = w;
+            lastH = h;
+        }
+        ticks++;
+    }
+
+    /** Writes the trailer (tick count + final state hash, checked on replay) and closes. */
+    public void finish(PongState finalState) throws IOException {
+        if (closed) return;
+        ensure(1 + 8 + 8);
+        buf.put(END).putLong(ticks).putLong(finalState.hash());
+        close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (buf.remaining() >= bytes) return;
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+}
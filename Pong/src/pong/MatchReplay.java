@@ -0,0 +1,141 @@
+package pong;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a log written by {@link MatchRecorder} (memory-mapped) one tick at a
+ * time. Feeding every tick into a {@link PongSimulation} created with
+ * {@link #seed()} re-simulates the match bit for bit.
+ *
+ * Run directly to replay a file as fast as possible:
+ * {@code java -cp pong.jar pong.MatchReplay match.pongrec}
+ */
+public final class MatchReplay {
+
+    private final ByteBuffer buf;
+    private final long seed;
+
+    private int inputs;
+    private boolean axes;
+    private double leftAxis, rightAxis;
+    private double dt = Double.NaN;
+    private int width = -1, height = -1;
+
+    private boolean ended = false;
+    private boolean hasTrailer = false;
+    private long expectedTicks = -1;
+    private long expectedHash = 0;
+
+    public MatchReplay(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            this.buf = map;
+        }
+
+        if (buf.remaining() < 8 + 4 + 8 || buf.getLong() != MatchRecorder.MAGIC) {
+            throw new IOException("not a match recording: " + file);
+        }
+        int version = buf.getInt();
+        if (version < MatchRecorder.MIN_VERSION || version > MatchRecorder.VERSION) {
+            throw new IOException("unsupported recording version " + version + ": " + file);
+        }
+        seed = buf.getLong();
+    }
+
+    public long seed() { return seed; }
+
+    /** Advances to the next tick; false at the end of the recording. */
+    public boolean next() {
+        if (ended) return false;
+        if (!buf.hasRemaining()) {
+            // recorder didn't get to write its trailer (crash / kill)
+            ended = true;
+            return false;
+        }
+
+        try {
+            byte flags = buf.get();
+            if (flags == MatchRecorder.END) {
+                expectedTicks = buf.getLong();
+                expectedHash = buf.getLong();
+                hasTrailer = true;
+                ended = true;
+                return false;
+            }
+
+            inputs = flags & MatchRecorder.INPUT_MASK;
+            if ((flags & MatchRecorder.FLAG_DT) != 0) dt = buf.getDouble();
+            if ((flags & MatchRecorder.FLAG_SIZE) != 0) {
+                width = buf.getInt();
+                height = buf.getInt();
+            }
+            axes = (flags & MatchRecorder.FLAG_AXES) != 0;
+            if (axes) {
+                leftAxis = buf.getDouble();
+                rightAxis = buf.getDouble();
+            }
+            return true;
+        } catch (BufferUnderflowException e) {
+            ended = true;
+            return false;
+        }
+    }
+
+    public int inputs() { return inputs; }
+
+    public double dt() { return dt; }
+
+    public int width() { return width; }
+
+    public int height() { return height; }
+
+    /** Resizes and steps the simulation with the current tick. */
+    public void apply(PongSimulation sim) {
+        sim.resize(width, height);
+        if (axes) sim.step(dt, leftAxis, rightAxis);
+        else sim.step(dt, inputs);
+    }
+
+    public boolean hasTrailer() { return hasTrailer; }
+
+    public long expectedTicks() { return expectedTicks; }
+
+    public long expectedHash() { return expectedHash; }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: MatchReplay <recording>");
+            System.exit(2);
+        }
+
+        MatchReplay replay = new MatchReplay(Path.of(args[0]));
+        PongSimulation sim = new PongSimulation(replay.seed());
+
+        long start = System.nanoTime();
+        long ticks = 0;
+        while (replay.next()) {
+            replay.apply(sim);
+            ticks++;
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        PongState s = sim.state();
+        System.out.printf("ticks %d  score %d:%d  hash %016x  (%.0f ticks/s)%n",
+                ticks, s.score1(), s.score2(), s.hash(), ticks / Math.max(secs, 1e-9));
+
+        if (!replay.hasTrailer()) {
+            System.out.println("no trailer, recording was cut off - nothing to verify against");
+        } else if (replay.expectedTicks() == ticks && replay.expectedHash() == s.hash()) {
+            System.out.println("OK: bit-identical to the recorded match");
+        } else {
+            System.out.printf("MISMATCH: recorded %d ticks, hash %016x%n", replay.expectedTicks(), replay.expectedHash());
+            System.exit(1);
+        }
+    }
+}
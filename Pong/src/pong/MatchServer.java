@@ -0,0 +1,263 @@
+package pong;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless server running many independent matches in one process.
+ *
+ * Matches are split evenly over shards, one platform thread per shard
+ * (one per core by default). All shards follow the same tick clock: at every
+ * deadline a shard steps each of its matches once with the fixed dt and
+ * parks until the next one. Shards share nothing but the input/position
+ * arrays below, so throughput scales with cores.
+ *
+ * Players are outside the shards: they write input bits into
+ * {@link #inputs} and read the published positions (see {@link #position}),
+ * which is all a {@link BotClient} or a network frontend needs. A match that
+ * reaches {@link #MATCH_POINTS} is counted as finished and replaced by a new
+ * one in the same slot.
+ *
+ * {@code MatchServer [matches] [seconds] [shards]}; -Dpong.tickHz=0 runs
+ * unpaced to measure capacity.
+ */
+public final class MatchServer {
+
+    public static final int WIDTH = PongSimulation.FIELD_WIDTH;
+    public static final int HEIGHT = PongSimulation.FIELD_HEIGHT;
+    public static final int MATCH_POINTS = 11;
+
+    // ticks a shard may fall behind before it drops them instead of catching up
+    private static final int MAX_CATCH_UP_TICKS = 15;
+
+    private final int matches;
+    private final double dt;
+    private final long tickNanos; // 0 = unpaced
+    private final Shard[] shards;
+
+    /** Per match input bits (PongSimulation.LEFT_UP, ...), written by the players. */
+    final AtomicIntegerArray inputs;
+
+    // per match: ball x, ball y, left paddle y, right paddle y as 16 bit fields, published after each tick
+    private final AtomicLongArray positions;
+
+    private volatile boolean running = false;
+
+    public MatchServer(int matches, int shardCount, int tickHz, long seed) {
+        if (matches <= 0) throw new IllegalArgumentException("matches must be > 0: " + matches);
+        if (shardCount <= 0) throw new IllegalArgumentException("shards must be > 0: " + shardCount);
+        if (tickHz < 0) throw new IllegalArgumentException("tickHz must be >= 0: " + tickHz);
+
+        this.matches = matches;
+        this.dt = 1.0 / (tickHz > 0 ? tickHz : 60);
+        this.tickNanos = tickHz > 0 ? 1_000_000_000L / tickHz : 0;
+        this.inputs = new AtomicIntegerArray(matches);
+        this.positions = new AtomicLongArray(matches);
+
+        GameRandom rnd = new GameRandom(seed);
+        int n = Math.min(shardCount, matches);
+        shards = new Shard[n];
+        for (int i = 0; i < n; i++) {
+            int from = (int) ((long) matches * i / n);
+            int to = (int) ((long) matches * (i + 1) / n);
+            shards[i] = new Shard(i, from, to, rnd.split());
+        }
+    }
+
+    public int matches() { return matches; }
+
+    public int shards() { return shards.length; }
+
+    public void start() {
+        running = true;
+        long start = System.nanoTime() + tickNanos;
+        for (Shard s : shards) {
+            s.next = start;
+            s.thread = new Thread(s, "match-shard-" + s.index);
+            s.thread.setDaemon(true);
+            s.thread.start();
+        }
+    }
+
+    public void stop() {
+        running = false;
+        for (Shard s : shards) {
+            try {
+                s.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Packed (ballX, ballY, leftY, rightY) of a match, pixels, 16 bits each from the top. */
+    long position(int match) {
+        return positions.get(match);
+    }
+
+    static int ballX(long p) { return (int) (p >>> 48); }
+
+    static int ballY(long p) { return (int) (p >>> 32) & 0xFFFF; }
+
+    static int leftY(long p) { return (int) (p >>> 16) & 0xFFFF; }
+
+    static int rightY(long p) { return (int) p & 0xFFFF; }
+
+    /** Totals since start, summed over shards. */
+    public long matchTicks() {
+        long n = 0;
+        for (Shard s : shards) n += s.ticks;
+        return n;
+    }
+
+    public long finishedMatches() {
+        long n = 0;
+        for (Shard s : shards) n += s.finished;
+        return n;
+    }
+
+    /** Worst lateness of a shard's tick start behind the shared clock, since the last call (ms). */
+    public double takeMaxLagMillis() {
+        long max = 0;
+        for (Shard s : shards) {
+            max = Math.max(max, s.maxLag);
+            s.maxLag = 0;
+        }
+        return max / 1e6;
+    }
+
+    /** Busy share of each shard's time since the last call, 0..1. */
+    public double[] takeUtilization() {
+        double[] u = new double[shards.length];
+        long now = System.nanoTime();
+        for (int i = 0; i < shards.length; i++) {
+            Shard s = shards[i];
+            long busy = s.busyNanos;
+            long wall = now - s.utilSince;
+            u[i] = wall > 0 ? Math.min(1.0, (busy - s.utilBusyMark) / (double) wall) : 0;
+            s.utilBusyMark = busy;
+            s.utilSince = now;
+        }
+        return u;
+    }
+
+    private final class Shard implements Runnable {
+        final int index;
+        final int from, to;
+        final PongSimulation[] sims;
+        final GameRandom rnd;
+        Thread thread;
+        long next;
+
+        // single writer (the shard thread), read by the reporter
+        volatile long ticks = 0;
+        volatile long finished = 0;
+        volatile long busyNanos = 0;
+        volatile long maxLag = 0;
+
+        // reporter side
+        long utilBusyMark = 0;
+        long utilSince = System.nanoTime();
+
+        Shard(int index, int from, int to, GameRandom rnd) {
+            this.index = index;
+            this.from = from;
+            this.to = to;
+            this.rnd = rnd;
+            sims = new PongSimulation[to - from];
+            for (int i = 0; i < sims.length; i++) {
+                sims[i] = new PongSimulation(rnd.nextLong());
+                sims[i].resize(WIDTH, HEIGHT);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                long now = System.nanoTime();
+                if (tickNanos > 0) {
+                    if (now < next) {
+                        LockSupport.parkNanos(next - now);
+                        continue;
+                    }
+                    long lag = now - next;
+                    if (lag > maxLag) maxLag = lag;
+                    next += tickNanos;
+                    if (lag > MAX_CATCH_UP_TICKS * tickNanos) next = now + tickNanos; // hopelessly behind: drop ticks
+                }
+
+                stepAll();
+                busyNanos += System.nanoTime() - now;
+            }
+        }
+
+        private void stepAll() {
+            int done = 0;
+            for (int i = 0; i < sims.length; i++) {
+                int m = from + i;
+                PongSimulation sim = sims[i];
+                sim.step(dt, inputs.get(m));
+
+                PongState s = sim.state();
+                if (s.score1 >= MATCH_POINTS || s.score2 >= MATCH_POINTS) {
+                    done++;
+                    sim.newMatch(rnd.nextLong());
+                    sim.resize(WIDTH, HEIGHT);
+                }
+                positions.lazySet(m, pack(s));
+            }
+            ticks += sims.length;
+            if (done > 0) finished += done;
+        }
+    }
+
+    private static long pack(PongState s) {
+        return ((long) clamp16(s.x) << 48) | ((long) clamp16(s.y) << 32)
+                | ((long) clamp16(s.leftPaddleY) << 16) | clamp16(s.rightPaddleY);
+    }
+
+    private static int clamp16(double v) {
+        return (int) Math.max(0, Math.min(0xFFFF, v));
+    }
+
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 20;
+        int shardCount = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int tickHz = Integer.getInteger("pong.tickHz", 60);
+
+        MatchServer server = new MatchServer(matches, shardCount, tickHz, Long.getLong("pong.seed", 1L));
+        BotClient bots = new BotClient(server, tickHz > 0 ? tickHz : 60, new GameRandom(2));
+        System.out.printf("%,d matches on %d shards, %s%n", matches, server.shards(),
+                tickHz > 0 ? tickHz + " Hz" : "unpaced");
+
+        server.start();
+        bots.start();
+
+        long startTicks = 0, startFinished = 0;
+        long last = System.nanoTime();
+        long end = last + (long) (seconds * 1e9);
+        server.takeUtilization();
+        while (System.nanoTime() < end) {
+            LockSupport.parkNanos(1_000_000_000L);
+            long now = System.nanoTime();
+            double secs = (now - last) / 1e9;
+            long ticks = server.matchTicks();
+            long finished = server.finishedMatches();
+
+            StringBuilder util = new StringBuilder();
+            for (double u : server.takeUtilization()) util.append(String.format(" %.0f%%", u * 100));
+            System.out.printf("%,.0f match ticks/s  %.1f matches finished/s  lag max %.2f ms  util%s%n",
+                    (ticks - startTicks) / secs, (finished - startFinished) / secs, server.takeMaxLagMillis(), util);
+
+            startTicks = ticks;
+            startFinished = finished;
+            last = now;
+        }
+
+        bots.stop();
+        server.stop();
+    }
+}
@@ -0,0 +1,162 @@
+package pong;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes JPEG frames into a Motion-JPEG AVI (RIFF, one video stream, idx1
+ * index) through a {@link FileChannel}. The headers go out first with
+ * placeholder sizes and are patched in place by {@link #finish()}. Frames
+ * must arrive in order; plain AVI sizes are 32 bit, so files stop at 2 GB.
+ */
+final class MjpegAviWriter implements Closeable {
+
+    private static final long MAX_BYTES = Integer.MAX_VALUE;
+
+    // fixed layout: RIFF/AVI , LIST/hdrl (avih, LIST/strl (strh, strf)), LIST/movi
+    private static final int STRL_SIZE = 4 + (8 + 56) + (8 + 40);
+    private static final int HDRL_SIZE = 4 + (8 + 56) + (8 + STRL_SIZE);
+    private static final int MOVI_LIST = 12 + 8 + HDRL_SIZE;  // position of "LIST" of the movi list
+    private static final int HEADER_BYTES = MOVI_LIST + 12;
+
+    private static final int AVIF_HASINDEX = 0x10;
+    private static final int AVIIF_KEYFRAME = 0x10;
+
+    private final FileChannel channel;
+    private final int width, height, fps;
+    private final ByteBuffer chunk = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer pad = ByteBuffer.allocate(1);
+
+    private long position = HEADER_BYTES;
+    private int frames;
+    private int maxFrameBytes;
+    private int[] offsets = new int[1024];
+    private int[] sizes = new int[1024];
+
+    MjpegAviWriter(Path file, int width, int height, int fps) throws IOException {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("bad size: " + width + "x" + height);
+        if (fps <= 0) throw new IllegalArgumentException("fps must be > 0: " + fps);
+        this.width = width;
+        this.height = height;
+        this.fps = fps;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeFully(header(), 0);
+    }
+
+    /** Appends one JPEG image (the first length bytes of jpeg) as the next frame. */
+    void writeFrame(byte[] jpeg, int length) throws IOException {
+        int padded = length + (length & 1);
+        if (position + 8 + padded + 16L * (frames + 1) > MAX_BYTES) {
+            throw new IOException("AVI would pass 2 GB after " + frames + " frames; export a PNG sequence or a"
+                    + " lower -Dpong.export.jpegQuality");
+        }
+        if (frames == offsets.length) {
+            offsets = Arrays.copyOf(offsets, frames * 2);
+            sizes = Arrays.copyOf(sizes, frames * 2);
+        }
+        offsets[frames] = (int) (position - (MOVI_LIST + 8));
+        sizes[frames] = length;
+        frames++;
+        maxFrameBytes = Math.max(maxFrameBytes, length);
+
+        chunk.clear();
+        chunk.put(fourcc("00dc")).putInt(length).flip();
+        position += writeFully(chunk, position);
+        position += writeFully(ByteBuffer.wrap(jpeg, 0, length), position);
+        if (padded != length) {
+            pad.clear();
+            position += writeFully(pad, position);
+        }
+    }
+
+    int frames() { return frames; }
+
+    /** Writes the index and the final sizes and counts into the headers. */
+    void finish() throws IOException {
+        long moviEnd = position;
+        ByteBuffer idx = ByteBuffer.allocate(8 + 16 * frames).order(ByteOrder.LITTLE_ENDIAN);
+        idx.put(fourcc("idx1")).putInt(16 * frames);
+        for (int i = 0; i < frames; i++) {
+            idx.put(fourcc("00dc")).putInt(AVIIF_KEYFRAME).putInt(offsets[i]).putInt(sizes[i]);
+        }
+        idx.flip();
+        position += writeFully(idx, position);
+
+        writeFully(header(), 0);
+        ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        size.putInt(0, (int) (position - 8));
+        writeFully(size, 4);
+        size.clear();
+        size.putInt(0, (int) (moviEnd - (MOVI_LIST + 8)));
+        writeFully(size, MOVI_LIST + 4);
+        channel.truncate(position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // everything up to the first frame, with the counts known so far
+    private ByteBuffer header() {
+        ByteBuffer b = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int suggested = maxFrameBytes + 8;
+
+        b.put(fourcc("RIFF")).putInt(0).put(fourcc("AVI "));
+        b.put(fourcc("LIST")).putInt(HDRL_SIZE).put(fourcc("hdrl"));
+
+        b.put(fourcc("avih")).putInt(56);
+        b.putInt(1_000_000 / fps);                    // microseconds per frame
+        b.putInt((int) Math.min(Integer.MAX_VALUE, (long) suggested * fps));  // max bytes per second
+        b.putInt(0);                                  // padding granularity
+        b.putInt(AVIF_HASINDEX);
+        b.putInt(frames);
+        b.putInt(0);                                  // initial frames
+        b.putInt(1);                                  // streams
+        b.putInt(suggested);
+        b.putInt(width).putInt(height);
+        b.putInt(0).putInt(0).putInt(0).putInt(0);    // reserved
+
+        b.put(fourcc("LIST")).putInt(STRL_SIZE).put(fourcc("strl"));
+        b.put(fourcc("strh")).putInt(56);
+        b.put(fourcc("vids")).put(fourcc("MJPG"));
+        b.putInt(0);                                  // flags
+        b.putShort((short) 0).putShort((short) 0);    // priority, language
+        b.putInt(0);                                  // initial frames
+        b.putInt(1).putInt(fps);                      // scale, rate: fps frames per second
+        b.putInt(0);                                  // start
+        b.putInt(frames);                             // length in frames
+        b.putInt(suggested);
+        b.putInt(-1);                                 // quality: default
+        b.putInt(0);                                  // sample size: varies
+        b.putShort((short) 0).putShort((short) 0).putShort((short) width).putShort((short) height);
+
+        b.put(fourcc("strf")).putInt(40);
+        b.putInt(40);                                 // BITMAPINFOHEADER size
+        b.putInt(width).putInt(height);
+        b.putShort((short) 1).putShort((short) 24);   // planes, bits per pixel
+        b.put(fourcc("MJPG"));
+        b.putInt(width * height * 3);
+        b.putInt(0).putInt(0).putInt(0).putInt(0);    // pixels per meter, colors
+
+        b.put(fourcc("LIST")).putInt(4).put(fourcc("movi"));
+        return b.flip();
+    }
+
+    private int writeFully(ByteBuffer b, long at) throws IOException {
+        int n = b.remaining();
+        while (b.hasRemaining()) at += channel.write(b, at);
+        return n;
+    }
+
+    private static byte[] fourcc(String s) {
+        return new byte[] { (byte) s.charAt(0), (byte) s.charAt(1), (byte) s.charAt(2), (byte) s.charAt(3) };
+    }
+}
@@ -0,0 +1,212 @@
+package pong;
+
+import java.util.Arrays;
+
+/**
+ * Ball set for multi-ball mode: a few balls up to tens of thousands, kept in
+ * primitive arrays (position is the top-left corner, like {@link PongState}).
+ * {@link PongSimulation#setBalls} moves every slot with the regular
+ * wall/paddle/score code; this class adds ball-to-ball collisions.
+ *
+ * Collisions are elastic between equal masses. The broad phase is a uniform
+ * grid rebuilt every step with a counting sort: cells are as wide as an
+ * extra ball, so touching balls are always in the same or a neighbouring
+ * cell, and each cell is only paired with half its neighbours so every pair
+ * is tested once. The state's ball is usually larger and is checked against
+ * all others in one linear pass instead, which keeps the cells small.
+ * {@link #BRUTE_FORCE} tests all pairs and is there for comparison.
+ */
+public final class MultiBall {
+
+    public static final int GRID = 0;
+    public static final int BRUTE_FORCE = 1;
+
+    // slot 0 is the state's ball and always has PongSimulation.BALL_SIZE
+    final double[] x, y, vx, vy;
+    final double[] size;
+    final boolean[] scored;
+    final int count;
+    boolean launched = false;
+
+    // positions at the start of the last step, for interpolated rendering
+    final double[] prevX, prevY;
+
+    private int broadPhase = GRID;
+    private final double cellSize;
+    private int cols, rows;
+    private int[] cellStart = new int[0];
+    private final int[] cellOf;
+    private final int[] sorted;
+
+    private long pairsTested;
+    private int collisions;
+
+    /** @param count     balls including the state's own; extras get the given size in px */
+    public MultiBall(int count, double extraSize) {
+        if (count < 1) throw new IllegalArgumentException("count must be >= 1: " + count);
+        if (extraSize <= 0) throw new IllegalArgumentException("size must be > 0: " + extraSize);
+        this.count = count;
+        x = new double[count];
+        y = new double[count];
+        vx = new double[count];
+        vy = new double[count];
+        prevX = new double[count];
+        prevY = new double[count];
+        size = new double[count];
+        scored = new boolean[count];
+        cellOf = new int[count];
+        sorted = new int[count];
+
+        size[0] = PongSimulation.BALL_SIZE;
+        for (int i = 1; i < count; i++) size[i] = extraSize;
+        cellSize = extraSize;
+    }
+
+    /** Ball size that keeps n balls to roughly a quarter of a 1280x720 field, at most BALL_SIZE. */
+    public static double defaultSize(int n) {
+        return Math.max(4, Math.min(PongSimulation.BALL_SIZE, Math.floor(Math.sqrt(230_000.0 / n))));
+    }
+
+    public int count() { return count; }
+
+    public double x(int i) { return x[i]; }
+
+    public double y(int i) { return y[i]; }
+
+    public double vx(int i) { return vx[i]; }
+
+    public double vy(int i) { return vy[i]; }
+
+    public double size(int i) { return size[i]; }
+
+    public int broadPhase() { return broadPhase; }
+
+    /** {@link #GRID} or {@link #BRUTE_FORCE}. */
+    public void setBroadPhase(int broadPhase) {
+        if (broadPhase != GRID && broadPhase != BRUTE_FORCE) {
+            throw new IllegalArgumentException("unknown broad phase: " + broadPhase);
+        }
+        this.broadPhase = broadPhase;
+    }
+
+    /** Pairs the broad phase handed to the exact test in the last step. */
+    public long pairsTested() { return pairsTested; }
+
+    /** Pairs that touched in the last step. */
+    public int collisions() { return collisions; }
+
+    void savePrevious() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    /** Separates and bounces every overlapping pair, then keeps all balls inside w x h. */
+    void collide(int w, int h) {
+        pairsTested = 0;
+        collisions = 0;
+        if (broadPhase == GRID) collideGrid(w, h);
+        else collideAll();
+
+        for (int i = 0; i < count; i++) {
+            x[i] = Math.max(0, Math.min(w - size[i], x[i]));
+            y[i] = Math.max(0, Math.min(h - size[i], y[i]));
+        }
+    }
+
+    private void collideAll() {
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) resolve(i, j);
+        }
+    }
+
+    private void collideGrid(int w, int h) {
+        for (int j = 1; j < count; j++) resolve(0, j);
+
+        cols = Math.max(1, (int) Math.ceil(w / cellSize));
+        rows = Math.max(1, (int) Math.ceil(h / cellSize));
+        int cells = cols * rows;
+        if (cellStart.length < cells + 1) cellStart = new int[cells + 1];
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+
+        // counting sort of the extra balls by cell
+        for (int i = 1; i < count; i++) {
+            int c = cell(x[i] + size[i] / 2, y[i] + size[i] / 2);
+            cellOf[i] = c;
+            cellStart[c + 1]++;
+        }
+        for (int c = 0; c < cells; c++) cellStart[c + 1] += cellStart[c];
+        for (int i = 1; i < count; i++) sorted[cellStart[cellOf[i]]++] = i;
+        // the scatter advanced every start to the next cell's: shift back
+        for (int c = cells; c > 0; c--) cellStart[c] = cellStart[c - 1];
+        cellStart[0] = 0;
+
+        for (int cy = 0; cy < rows; cy++) {
+            for (int cx = 0; cx < cols; cx++) {
+                int c = cy * cols + cx;
+                int from = cellStart[c], to = cellStart[c + 1];
+                if (from == to) continue;
+
+                for (int a = from; a < to; a++) {
+                    for (int b = a + 1; b < to; b++) resolve(sorted[a], sorted[b]);
+                }
+                // half the neighbourhood: east, and the row below
+                if (cx + 1 < cols) pairCells(from, to, c + 1);
+                if (cy + 1 < rows) {
+                    if (cx > 0) pairCells(from, to, c + cols - 1);
+                    pairCells(from, to, c + cols);
+                    if (cx + 1 < cols) pairCells(from, to, c + cols + 1);
+                }
+            }
+        }
+    }
+
+    private void pairCells(int from, int to, int other) {
+        int oFrom = cellStart[other], oTo = cellStart[other + 1];
+        for (int a = from; a < to; a++) {
+            for (int b = oFrom; b < oTo; b++) resolve(sorted[a], sorted[b]);
+        }
+    }
+
+    private int cell(double cx, double cy) {
+        int gx = Math.max(0, Math.min(cols - 1, (int) (cx / cellSize)));
+        int gy = Math.max(0, Math.min(rows - 1, (int) (cy / cellSize)));
+        return gy * cols + gx;
+    }
+
+    // equal masses: push the pair apart along the normal, swap the normal velocity components if closing
+    private void resolve(int i, int j) {
+        pairsTested++;
+        double ri = size[i] / 2, rj = size[j] / 2;
+        double dx = (x[j] + rj) - (x[i] + ri);
+        double dy = (y[j] + rj) - (y[i] + ri);
+        double minD = ri + rj;
+        double d2 = dx * dx + dy * dy;
+        if (d2 >= minD * minD) return;
+        collisions++;
+
+        double d = Math.sqrt(d2);
+        double nx, ny;
+        if (d > 1e-9) {
+            nx = dx / d;
+            ny = dy / d;
+        } else {
+            // same center: split along x
+            nx = 1;
+            ny = 0;
+        }
+
+        double push = (minD - d) / 2;
+        x[i] -= nx * push;
+        y[i] -= ny * push;
+        x[j] += nx * push;
+        y[j] += ny * push;
+
+        double closing = (vx[j] - vx[i]) * nx + (vy[j] - vy[i]) * ny;
+        if (closing >= 0) return;
+        double k = closing * (1 + PongSimulation.BALL_RESTITUTION) / 2;
+        vx[i] += k * nx;
+        vy[i] += k * ny;
+        vx[j] -= k * nx;
+        vy[j] -= k * ny;
+    }
+}
@@ -0,0 +1,444 @@
+package pong;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Two-player netplay over UDP with rollback.
+ *
+ * Both peers run the same deterministic {@link PongSimulation} (seed,
+ * playfield size and dt come from the host). Only input bits travel: every
+ * packet carries all local inputs the peer has not acknowledged yet, so a
+ * lost packet is covered by the next one. The remote paddle is predicted to
+ * keep doing what it last did; when a real input arrives that differs from
+ * the prediction, the state is restored from the snapshot taken before that
+ * tick and the ticks since are simulated again.
+ *
+ * Snapshots are plain {@link PongState} copies in a fixed ring, so a
+ * rollback allocates nothing. The host plays the left paddle.
+ *
+ * Headless test: {@code NetSession host <port>} and
+ * {@code NetSession connect <host:port>} in two terminals, with bots playing.
+ */
+public final class NetSession implements Closeable {
+
+    // ring size for inputs, snapshots and hashes (power of two)
+    static final int WINDOW = 128;
+    private static final int MASK = WINDOW - 1;
+
+    // never predict further than this ahead of the last confirmed remote input; wait instead
+    static final int MAX_ROLLBACK = 16;
+
+    private static final int MAX_INPUTS_PER_PACKET = 64;
+    private static final int PROTOCOL = 1;
+
+    private static final byte HELLO = 1;
+    private static final byte WELCOME = 2;
+    private static final byte INPUT = 3;
+
+    // local input bits (mapped onto the left or right paddle)
+    public static final int UP = 1;
+    public static final int DOWN = 2;
+
+    private final boolean host;
+    private final DatagramChannel channel;
+    private final NetShim shim;
+    private final PongSimulation sim;
+    private final PongState state;
+    private SocketAddress peer;
+
+    private final ByteBuffer out = ByteBuffer.allocateDirect(1024);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(1024);
+
+    // match parameters (chosen by the host)
+    private final long seed;
+    private int inputDelay;
+    private double dt;
+    private int width, height;
+
+    private boolean running = false;
+    private long lastHello = 0;
+
+    // next tick to simulate; inputs for frame + inputDelay are being decided now
+    private int frame = 0;
+    private final byte[] localInput = new byte[WINDOW];
+    private final byte[] remoteInput = new byte[WINDOW];
+    private final int[] remoteFrame = new int[WINDOW];  // which frame a remoteInput slot holds
+    private final byte[] usedRemote = new byte[WINDOW]; // what the simulation used for that frame
+    private final PongState[] snapshots = new PongState[WINDOW]; // state before simulating a frame
+    private int remoteConfirmed = -1;                   // every remote input up to here is known
+    private int peerAck = -1;                           // peer has every local input up to here
+    private int peerFrame = 0;
+    private int rollbackFrom = Integer.MAX_VALUE;
+
+    // desync check: hash of the state after each confirmed frame, compared with the peer's
+    private final long[] hashes = new long[WINDOW];
+    private int lastHashed = -1;
+    private int peerHashFrame = -1;
+    private long peerHash;
+    private int checkedHashFrame = -1;
+
+    // RTT from echoed timestamps
+    private long peerStamp = 0;
+    private long peerStampAt = 0;
+
+    // stats
+    private double rttMillis = 0;
+    private int lastRollback = 0;
+    private int maxRollback = 0;
+    private long rollbacks = 0;
+    private double resimMillis = 0;
+    private long stalls = 0;
+    private long desyncs = 0;
+    private int skipCooldown = 0;
+
+    private NetSession(boolean host, DatagramChannel channel, SocketAddress peer, PongSimulation sim,
+                       long seed, double dt, int inputDelay) {
+        this.host = host;
+        this.channel = channel;
+        this.peer = peer;
+        this.sim = sim;
+        this.state = sim.state();
+        this.seed = seed;
+        this.dt = dt;
+        this.inputDelay = inputDelay;
+        this.shim = NetShim.fromProperties();
+        for (int i = 0; i < WINDOW; i++) {
+            snapshots[i] = new PongState();
+            remoteFrame[i] = -1;
+        }
+    }
+
+    /** Waits for a client on the given UDP port; seed, dt and input delay apply to both sides. */
+    public static NetSession host(int port, PongSimulation sim, long seed, double dt, int inputDelay) throws IOException {
+        if (inputDelay < 0 || inputDelay >= MAX_ROLLBACK) {
+            throw new IllegalArgumentException("input delay must be 0.." + (MAX_ROLLBACK - 1) + ": " + inputDelay);
+        }
+        DatagramChannel ch = DatagramChannel.open();
+        ch.configureBlocking(false);
+        ch.bind(new InetSocketAddress(port));
+        return new NetSession(true, ch, null, sim, seed, dt, inputDelay);
+    }
+
+    /** Connects to a host; the match starts once it answers. */
+    public static NetSession connect(String hostAndPort, PongSimulation sim) throws IOException {
+        int colon = hostAndPort.lastIndexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException("expected host:port, got " + hostAndPort);
+        SocketAddress addr = new InetSocketAddress(hostAndPort.substring(0, colon),
+                Integer.parseInt(hostAndPort.substring(colon + 1)));
+
+        DatagramChannel ch = DatagramChannel.open();
+        ch.configureBlocking(false);
+        ch.bind(null);
+        return new NetSession(false, ch, addr, sim, 0, 0, 0);
+    }
+
+    public boolean isHost() { return host; }
+
+    /** True once both peers have agreed on the match. */
+    public boolean isRunning() { return running; }
+
+    public int frame() { return frame; }
+
+    public double rttMillis() { return rttMillis; }
+
+    public int lastRollback() { return lastRollback; }
+
+    public int maxRollback() { return maxRollback; }
+
+    public long rollbacks() { return rollbacks; }
+
+    /** Smoothed time spent re-simulating per rollback. */
+    public double resimMillis() { return resimMillis; }
+
+    public long stalls() { return stalls; }
+
+    public long desyncs() { return desyncs; }
+
+    /**
+     * One local tick: read the network, roll back if a prediction was wrong,
+     * simulate the next frame with localBits (UP/DOWN) and send inputs.
+     * w and h are only used by the host, as the playfield size of the match.
+     */
+    public void tick(int localBits, int w, int h) throws IOException {
+        long now = System.nanoTime();
+        shim.flush(channel, now);
+        receive(now, w, h);
+
+        if (!running) {
+            if (!host && now - lastHello > 100_000_000L) {
+                lastHello = now;
+                out.clear();
+                out.put(HELLO).putInt(PROTOCOL);
+                send(now);
+            }
+            return;
+        }
+
+        if (rollbackFrom < frame) rollback();
+
+        if (frame - remoteConfirmed > MAX_ROLLBACK) {
+            // too far ahead of what we know about the peer
+            stalls++;
+            sendInputs(now);
+            return;
+        }
+        if (aheadOfPeer()) {
+            // give the peer a tick to catch up, so neither side keeps rolling back
+            skipCooldown = 8;
+            sendInputs(now);
+            return;
+        }
+        if (skipCooldown > 0) skipCooldown--;
+
+        localInput[(frame + inputDelay) & MASK] = (byte) (localBits & (UP | DOWN));
+        simulate(frame);
+        frame++;
+        hashConfirmed();
+        sendInputs(now);
+    }
+
+    // Peer's estimated current frame is behind ours by more than a tick.
+    private boolean aheadOfPeer() {
+        if (skipCooldown > 0) return false;
+        double oneWayTicks = rttMillis / 2000.0 / dt;
+        return frame - (peerFrame + oneWayTicks) > 2;
+    }
+
+    private void simulate(int t) {
+        snapshots[t & MASK].copyFrom(state);
+
+        int remote = remoteFrame[t & MASK] == t ? remoteInput[t & MASK] : predictRemote();
+        usedRemote[t & MASK] = (byte) remote;
+        int local = localInput[t & MASK];
+
+        int left = host ? local : remote;
+        int right = host ? remote : local;
+        int bits = 0;
+        if ((left & UP) != 0) bits |= PongSimulation.LEFT_UP;
+        if ((left & DOWN) != 0) bits |= PongSimulation.LEFT_DOWN;
+        if ((right & UP) != 0) bits |= PongSimulation.RIGHT_UP;
+        if ((right & DOWN) != 0) bits |= PongSimulation.RIGHT_DOWN;
+
+        sim.resize(width, height);
+        sim.step(dt, bits);
+    }
+
+    // the remote player keeps doing what they last did
+    private int predictRemote() {
+        return remoteConfirmed >= 0 ? remoteInput[remoteConfirmed & MASK] : 0;
+    }
+
+    private void rollback() {
+        long start = System.nanoTime();
+        int from = rollbackFrom;
+        rollbackFrom = Integer.MAX_VALUE;
+
+        state.copyFrom(snapshots[from & MASK]);
+
+        // effects (explosions, ...) already played the first time round
+        PongSimulation.Listener effects = sim.listener();
+        sim.setListener(PongSimulation.Listener.NONE);
+        for (int t = from; t < frame; t++) simulate(t);
+        sim.setListener(effects);
+
+        lastRollback = frame - from;
+        maxRollback = Math.max(maxRollback, lastRollback);
+        rollbacks++;
+        double ms = (System.nanoTime() - start) / 1e6;
+        resimMillis = rollbacks == 1 ? ms : resimMillis * 0.9 + ms * 0.1;
+    }
+
+    private void hashConfirmed() {
+        int confirmed = Math.min(remoteConfirmed, frame - 1);
+        for (int c = lastHashed + 1; c <= confirmed; c++) {
+            // state after frame c
+            hashes[c & MASK] = c + 1 == frame ? state.hash() : snapshots[(c + 1) & MASK].hash();
+            lastHashed = c;
+        }
+        checkPeerHash();
+    }
+
+    private void checkPeerHash() {
+        if (peerHashFrame <= checkedHashFrame || peerHashFrame > lastHashed) return;
+        checkedHashFrame = peerHashFrame;
+        if (peerHashFrame <= lastHashed - WINDOW + MAX_ROLLBACK) return; // too old, slot reused
+        if (hashes[peerHashFrame & MASK] != peerHash) desyncs++;
+    }
+
+    private void receive(long now, int w, int h) throws IOException {
+        while (true) {
+            in.clear();
+            SocketAddress from = channel.receive(in);
+            if (from == null) return;
+            in.flip();
+            if (!in.hasRemaining()) continue;
+
+            try {
+                byte type = in.get();
+                if (type == HELLO && host) onHello(from, w, h, now);
+                else if (type == WELCOME && !host) onWelcome();
+                else if (type == INPUT && running && from.equals(peer)) onInput(now);
+            } catch (java.nio.BufferUnderflowException e) {
+                // truncated datagram, ignore
+            }
+        }
+    }
+
+    private void onHello(SocketAddress from, int w, int h, long now) throws IOException {
+        if (in.getInt() != PROTOCOL) return;
+        if (!running) {
+            if (w <= 0 || h <= 0) return; // no playfield yet, the client will ask again
+            peer = from;
+            start(seed, w, h);
+        }
+        if (!from.equals(peer)) return; // someone else, match is taken
+
+        out.clear();
+        out.put(WELCOME).putInt(PROTOCOL).putLong(seed).putInt(width).putInt(height)
+                .putDouble(dt).put((byte) inputDelay);
+        send(now);
+    }
+
+    private void onWelcome() {
+        if (in.getInt() != PROTOCOL || running) return;
+        long s = in.getLong();
+        int w = in.getInt();
+        int h = in.getInt();
+        dt = in.getDouble();
+        inputDelay = in.get();
+        start(s, w, h);
+    }
+
+    private void start(long matchSeed, int w, int h) {
+        width = w;
+        height = h;
+        sim.newMatch(matchSeed);
+        sim.resize(w, h);
+
+        // nobody presses anything during the first inputDelay frames
+        for (int t = 0; t < inputDelay; t++) {
+            remoteFrame[t] = t;
+            remoteInput[t] = 0;
+        }
+        remoteConfirmed = inputDelay - 1;
+        running = true;
+    }
+
+    private void onInput(long now) {
+        int theirFrame = in.getInt();
+        int ack = in.getInt();
+        long stamp = in.getLong();
+        long echo = in.getLong();
+        long echoDelay = in.getLong();
+        int hashFrame = in.getInt();
+        long hash = in.getLong();
+        int first = in.getInt();
+        int n = in.get() & 0xFF;
+
+        peerFrame = Math.max(peerFrame, theirFrame);
+        peerAck = Math.max(peerAck, ack);
+        if (stamp != 0) {
+            peerStamp = stamp;
+            peerStampAt = now;
+        }
+        if (echo != 0) {
+            double rtt = (now - echo - echoDelay) / 1e6;
+            rttMillis = rttMillis == 0 ? rtt : rttMillis * 0.9 + rtt * 0.1;
+        }
+        if (hashFrame > peerHashFrame) {
+            peerHashFrame = hashFrame;
+            peerHash = hash;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int t = first + i;
+            int bits = in.get();
+            if (t <= remoteConfirmed || t >= remoteConfirmed + WINDOW - MAX_ROLLBACK) continue;
+            if (remoteFrame[t & MASK] == t) continue;
+
+            remoteFrame[t & MASK] = t;
+            remoteInput[t & MASK] = (byte) bits;
+            if (t < frame && usedRemote[t & MASK] != bits) rollbackFrom = Math.min(rollbackFrom, t);
+        }
+        while (remoteFrame[(remoteConfirmed + 1) & MASK] == remoteConfirmed + 1) remoteConfirmed++;
+    }
+
+    private void sendInputs(long now) throws IOException {
+        int last = frame + inputDelay - 1; // newest decided local input
+        int first = Math.max(peerAck + 1, last - MAX_INPUTS_PER_PACKET + 1);
+        int n = Math.max(0, last - first + 1);
+
+        out.clear();
+        out.put(INPUT).putInt(frame).putInt(remoteConfirmed)
+                .putLong(now).putLong(peerStamp).putLong(peerStamp != 0 ? now - peerStampAt : 0)
+                .putInt(lastHashed).putLong(lastHashed >= 0 ? hashes[lastHashed & MASK] : 0)
+                .putInt(first).put((byte) n);
+        for (int t = first; t <= last; t++) out.put(localInput[t & MASK]);
+        send(now);
+    }
+
+    private void send(long now) throws IOException {
+        if (peer == null) return;
+        out.flip();
+        shim.send(channel, out, peer, now);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Headless bot match: {@code NetSession host <port> [seconds]} / {@code NetSession connect <host:port> [seconds]}. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("host") || args[0].equals("connect"))) {
+            System.err.println("usage: NetSession host <port> [seconds] | connect <host:port> [seconds]");
+            System.exit(2);
+        }
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 20;
+        int tickHz = Integer.getInteger("pong.tickHz", 60);
+        long tickNanos = 1_000_000_000L / tickHz;
+
+        PongSimulation sim = new PongSimulation();
+        NetSession net = args[0].equals("host")
+                ? host(Integer.parseInt(args[1]), sim, Long.getLong("pong.seed", 1L), 1.0 / tickHz,
+                       Integer.getInteger("pong.netInputDelay", 1))
+                : connect(args[1], sim);
+
+        PongState s = sim.state();
+        long next = System.nanoTime();
+        long end = Long.MAX_VALUE;
+        long nextReport = 0;
+        while (System.nanoTime() < end) {
+            // bot: follow the ball
+            double paddle = net.isHost() ? s.leftPaddleY : s.rightPaddleY;
+            double target = s.y + PongSimulation.BALL_SIZE / 2.0 - PongSimulation.PADDLE_HEIGHT / 2.0;
+            int bits = target < paddle - 6 ? UP : target > paddle + 6 ? DOWN : 0;
+
+            net.tick(bits, 1280, 720);
+            if (net.isRunning() && end == Long.MAX_VALUE) {
+                end = System.nanoTime() + (long) (seconds * 1e9);
+                nextReport = System.nanoTime() + 1_000_000_000L;
+            }
+            if (net.isRunning() && System.nanoTime() >= nextReport) {
+                System.out.printf("frame %d  score %d:%d  rtt %.1f ms  rollback %d (max %d, %d total)  resim %.3f ms  stalls %d  desyncs %d%n",
+                        net.frame(), s.score1(), s.score2(), net.rttMillis(), net.lastRollback(), net.maxRollback(),
+                        net.rollbacks(), net.resimMillis(), net.stalls(), net.desyncs());
+                nextReport += 1_000_000_000L;
+            }
+
+            next += tickNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            else next = System.nanoTime();
+        }
+
+        System.out.printf("done: %d frames, confirmed up to %d, %d desyncs%n", net.frame(), net.lastHashed, net.desyncs());
+        net.close();
+    }
+}
@@ -0,0 +1,89 @@
+package pong;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.PriorityQueue;
+
+/**
+ * Artificial network conditions for testing netplay on loopback: holds back
+ * outgoing datagrams by a one-way latency plus random jitter (which can
+ * reorder them, like a real network) and drops a share of them.
+ *
+ * Configured with -Dpong.netLatency (ms), -Dpong.netJitter (ms) and
+ * -Dpong.netLoss (percent); all 0 = datagrams go straight out.
+ */
+final class NetShim {
+
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double loss;
+    private final GameRandom rnd;
+
+    private final PriorityQueue<Pending> queue = new PriorityQueue<>();
+    private long order = 0;
+
+    NetShim(double latencyMs, double jitterMs, double lossPercent, GameRandom rnd) {
+        if (latencyMs < 0 || jitterMs < 0) throw new IllegalArgumentException("latency/jitter must be >= 0");
+        if (lossPercent < 0 || lossPercent > 100) throw new IllegalArgumentException("loss must be 0..100: " + lossPercent);
+        this.latencyNanos = (long) (latencyMs * 1_000_000);
+        this.jitterNanos = (long) (jitterMs * 1_000_000);
+        this.loss = lossPercent / 100.0;
+        this.rnd = rnd;
+    }
+
+    static NetShim fromProperties() {
+        return new NetShim(
+                Double.parseDouble(System.getProperty("pong.netLatency", "0")),
+                Double.parseDouble(System.getProperty("pong.netJitter", "0")),
+                Double.parseDouble(System.getProperty("pong.netLoss", "0")),
+                new GameRandom());
+    }
+
+    boolean isActive() {
+        return latencyNanos > 0 || jitterNanos > 0 || loss > 0;
+    }
+
+    /** Sends buf (position..limit) now, later or never. */
+    void send(DatagramChannel ch, ByteBuffer buf, SocketAddress to, long now) throws IOException {
+        if (!isActive()) {
+            ch.send(buf, to);
+            return;
+        }
+        if (loss > 0 && rnd.nextDouble() < loss) return;
+
+        long due = now + latencyNanos + (jitterNanos > 0 ? (long) (rnd.nextDouble() * jitterNanos) : 0);
+        ByteBuffer copy = ByteBuffer.allocate(buf.remaining());
+        copy.put(buf).flip();
+        queue.add(new Pending(due, order++, copy, to));
+        flush(ch, now);
+    }
+
+    /** Sends everything that is due. */
+    void flush(DatagramChannel ch, long now) throws IOException {
+        while (!queue.isEmpty() && queue.peek().due <= now) {
+            Pending p = queue.poll();
+            ch.send(p.data, p.to);
+        }
+    }
+
+    private static final class Pending implements Comparable<Pending> {
+        final long due, order;
+        final ByteBuffer data;
+        final SocketAddress to;
+
+        Pending(long due, long order, ByteBuffer data, SocketAddress to) {
+            this.due = due;
+            this.order = order;
+            this.data = data;
+            this.to = to;
+        }
+
+        @Override
+        public int compareTo(Pending o) {
+            int c = Long.compare(due, o.due);
+            return c != 0 ? c : Long.compare(order, o.order);
+        }
+    }
+}
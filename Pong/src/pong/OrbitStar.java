@@ -0,0 +1,221 @@
+package pong;
+
+import java.awt.*;
+
+public class OrbitStar {
+
+    // orbit center
+    double cx, cy;
+
+    // polar position
+    double r;           // radius
+    double angle;       // current angle
+
+    // ALL SAME DIRECTION: positive = clockwise/counterclockwise depending on screen coords
+    double angSpeed;    // radians/sec (always same sign)
+
+    // ellipse factor (natural look)
+    double ellipse;
+
+    // star look
+    int size;           // 1..2 px
+    double baseAlpha;   // 0..1 baseline brightness
+
+    // twinkle
+    double twPhase;     // 0..2π
+    double twSpeed;     // radians/sec
+    double twAmount;    // 0..1 (subtle)
+
+    // color tint (some slightly warm)
+    int rCol, gCol, bCol;
+
+    // streak length factor (depends on radius + brightness)
+    double streakLen;
+
+    // innermost orbit radius
+    private static final double MIN_R = 30;
+
+    // source-over at every 8-bit alpha, so drawing a frame allocates no composites
+    static final AlphaComposite[] ALPHA = new AlphaComposite[256];
+    static {
+        for (int i = 0; i < ALPHA.length; i++) {
+            ALPHA[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / 255f);
+        }
+    }
+
+    // streak width by star size (1..2 px)
+    private static final BasicStroke[] STREAK_STROKE = { null, streakStroke(1), streakStroke(2) };
+
+    // opaque; the head sparkle is faded by the composite
+    private Color color;
+
+    private OrbitStar() {}
+
+    public static OrbitStar random(int w, int h, GameRandom rnd) {
+        OrbitStar s = new OrbitStar();
+
+        // center (slight offset feels more like real photos sometimes)
+        s.cx = w / 2.0;
+        s.cy = h / 2.0;
+
+        // radius distribution: more stars further out
+        double maxR = maxRadius(w, h);
+        double t = rnd.nextDouble(); // 0..1
+        s.r = MIN_R + (maxR - MIN_R) * Math.sqrt(t);
+
+        s.angle = rnd.nextDouble(0, Math.PI * 2);
+
+        // speed: still subtle, but visible
+        // ALL SAME DIRECTION -> always positive (you can flip by making it negative)
+        s.angSpeed = rnd.nextDouble(0.06, 0.16);
+
+        s.ellipse = rnd.nextDouble(0.86, 1.14);
+
+        s.size = rnd.nextInt(1, 3); // 1..2 px
+
+        // brightness distribution: mostly dim, a few brighter
+        double a = rnd.nextDouble(0.06, 0.28);
+        if (rnd.nextDouble() < 0.10) {
+            a = rnd.nextDouble(0.28, 0.60);
+        }
+        s.baseAlpha = a;
+
+        // twinkle: very subtle
+        s.twPhase = rnd.nextDouble(0, Math.PI * 2);
+        s.twSpeed = rnd.nextDouble(1.5, 3.8);
+        s.twAmount = rnd.nextDouble(0.06, 0.18);
+
+        // some stars slightly warm/yellowish
+        // 0.0 = pure white, 1.0 = warmer
+        double warm = 0.0;
+        double p = rnd.nextDouble();
+        if (p < 0.18) warm = rnd.nextDouble(0.25, 0.70); // warm stars
+        else if (p < 0.28) warm = rnd.nextDouble(0.10, 0.25); // slight warm
+
+        // base white + warm mix
+        // warm target ~ (255, 235, 190)
+        s.rCol = 255;
+        s.gCol = (int) Math.round(255 * (1.0 - warm) + 235 * warm);
+        s.bCol = (int) Math.round(255 * (1.0 - warm) + 190 * warm);
+
+        // streak length: bigger at outer radius + brighter stars get longer streaks
+        s.streakLen = 3.0 + 14.0 * (s.r / maxR) + 30.0 * s.baseAlpha;
+
+        s.color = new Color(s.rCol, s.gCol, s.bCol);
+
+        return s;
+    }
+
+    /** Moves the star to the same relative place in a field of outer radius newMaxR instead of oldMaxR. */
+    void reproject(double oldMaxR, double newMaxR) {
+        r = MIN_R + (r - MIN_R) * (newMaxR - MIN_R) / (oldMaxR - MIN_R);
+    }
+
+    /** Outer orbit radius of stars generated for a w x h field. */
+    static double maxRadius(int w, int h) {
+        return Math.hypot(w, h) * 0.62;
+    }
+
+    public void update(double dt, int w, int h) {
+        // keep center synced to window size (in case you resize)
+        cx = w / 2.0;
+        cy = h / 2.0;
+
+        angle += angSpeed * dt;
+        twPhase += twSpeed * dt;
+    }
+
+    /** Brightness halfway through the twinkle cycle; layers bake this in. */
+    double meanAlpha() {
+        return Math.min(1.0, baseAlpha * (1.0 - twAmount * 0.5));
+    }
+
+    double twinkledAlpha() {
+        // sin in [ -1..1 ] -> map to [1 - twAmount .. 1]
+        double tw = (Math.sin(twPhase) + 1.0) * 0.5; // 0..1
+        double mul = (1.0 - twAmount) + twAmount * tw;
+        double a = baseAlpha * mul;
+
+        // keep subtle, clamp
+        if (a < 0) a = 0;
+        if (a > 1) a = 1;
+        return a;
+    }
+
+    /** Draws the star, with streak as the scratch paint for its gradient. */
+    void draw(Graphics2D g2, StreakPaint streak) {
+        drawAt(g2, streak, cx, cy, angle, ellipse, twinkledAlpha());
+    }
+
+    /** Same streak as drawAt, for the software backend. */
+    void raster(SoftwareRasterizer out, double cx, double cy, double angle, double a) {
+        if (a <= 0) return;
+
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double px = cx + cos * r;
+        double py = cy + sin * r * ellipse;
+
+        double tx = -sin;
+        double ty = cos * ellipse;
+        double tlen = Math.hypot(tx, ty);
+        if (tlen > 0.0001) {
+            tx /= tlen;
+            ty /= tlen;
+        }
+
+        int rgb = (rCol << 16) | (gCol << 8) | bCol;
+        out.line(px, py, px - tx * streakLen, py - ty * streakLen, Math.max(1.0, size * 0.9),
+                rgb, a, 0, SoftwareRasterizer.BLEND_OVER);
+        out.disc(px + size / 2.0, py + size / 2.0, size / 2.0, 0, rgb, Math.min(1.0, a + 40 / 255.0),
+                SoftwareRasterizer.BLEND_OVER);
+    }
+
+    /** Draws the star as if it orbited (cx, cy) at the given angle, e.g. into a cached layer. */
+    void drawAt(Graphics2D g2, StreakPaint streak, double cx, double cy, double angle, double ellipse, double a) {
+        int alpha = (int) Math.round(a * 255);
+        if (alpha <= 0) return;
+
+        // position
+        double px = cx + Math.cos(angle) * r;
+        double py = cy + Math.sin(angle) * r * ellipse;
+
+        // tangent direction (for streak)
+        // derivative wrt angle: (-sin, cos)
+        double tx = -Math.sin(angle);
+        double ty =  Math.cos(angle) * ellipse;
+
+        // normalize tangent
+        double tlen = Math.hypot(tx, ty);
+        if (tlen > 0.0001) {
+            tx /= tlen;
+            ty /= tlen;
+        }
+
+        // streak size: subtle & depends on radius/brightness
+        double len = streakLen;
+        double x2 = px - tx * len;
+        double y2 = py - ty * len;
+
+        Paint oldP = g2.getPaint();
+        Stroke oldS = g2.getStroke();
+        Composite oldC = g2.getComposite();
+
+        // gradient streak: bright head -> transparent tail
+        g2.setStroke(STREAK_STROKE[size]);
+        streak.draw(g2, px, py, x2, y2, (rCol << 16) | (gCol << 8) | bCol, alpha);
+
+        // tiny head sparkle
+        g2.setColor(color);
+        g2.setComposite(ALPHA[Math.min(255, alpha + 40)]);
+        g2.fillRect((int) px, (int) py, size, size);
+
+        g2.setComposite(oldC);
+        g2.setStroke(oldS);
+        g2.setPaint(oldP);
+    }
+
+    private static BasicStroke streakStroke(int size) {
+        return new BasicStroke(Math.max(1.0f, (float) (size * 0.9)), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    }
+}
@@ -0,0 +1,44 @@
+package pong;
+
+/**
+ * Particle kinds and the physics constants they share. Particles are not
+ * objects any more - their state lives in the primitive arrays of
+ * {@link FireTrail}, indexed by slot.
+ */
+public final class Particle {
+
+    static final byte FIRE = 0;
+    static final byte EXPLOSION = 1;
+
+    // Speeds are px/s and drag is 1/s. Tuned at 60 ticks/s: each kind keeps the share of its speed per 1/60 s
+    // given in its drag, and starts a few percent faster than the old per-tick values times 60, so that it
+    // covers the same distance under exact drag.
+
+    // FIRE: trails behind the ball, drifts up a little
+    static final double FIRE_SPREAD = 88;
+    static final double FIRE_BALL_INHERIT = 1.9;  // times the ball velocity, backwards, at emission
+    static final double FIRE_DRAG = -Math.log(0.92) * 60;
+    static final double FIRE_RISE = 60;   // upward speed the drag settles at
+
+    // EXPLOSION: big radial burst on paddle hits
+    static final double EXPLOSION_MIN_SPEED = 600;
+    static final double EXPLOSION_MAX_SPEED = 1100;
+    static final double EXPLOSION_SPEED_SCALE = 1.03;
+    static final double EXPLOSION_DRAG = -Math.log(0.86) * 60;
+
+    /**
+     * Share of its speed (relative to the speed it settles at) a particle
+     * keeps over dt under linear drag. Exact, so any tick rate gives the
+     * same motion.
+     */
+    static double decay(double drag, double dt) {
+        return Math.exp(-drag * dt);
+    }
+
+    /** Distance covered over dt per px/s of that speed, under the same drag. */
+    static double travel(double drag, double dt) {
+        return -Math.expm1(-drag * dt) / drag;
+    }
+
+    private Particle() {}
+}
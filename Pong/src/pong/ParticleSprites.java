@@ -0,0 +1,220 @@
+package pong;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Pre-rendered particle discs. Every (variant, tint, alpha, size) bucket is
+ * drawn once into a single atlas image; drawing a particle is then one
+ * unscaled {@code drawImage} from that atlas instead of a new Color plus an
+ * antialiased fillOval.
+ *
+ * The atlas is built for the GraphicsConfiguration it is drawn to and only
+ * rebuilt when that configuration changes (e.g. window moved to another screen).
+ */
+public final class ParticleSprites {
+
+    // variants
+    static final int SOLID = 0;
+    static final int GLOW = 1;   // disc with a soft halo around it
+
+    // tints: 0 = fire, 1.. = explosion (green channel jitter picked at emission)
+    static final int TINT_FIRE = 0;
+    private static final float[] EXPLOSION_GREEN = { 0.65f, 0.75f, 0.85f };
+    static final int TINT_COUNT = 1 + EXPLOSION_GREEN.length;
+
+    static final int ALPHA_LEVELS = 8;
+
+    // diameters SIZE_STEP, 2*SIZE_STEP, ... MAX_SIZE
+    static final int SIZE_STEP = 2;
+    static final int MAX_SIZE = 32;
+    static final int SIZE_BUCKETS = MAX_SIZE / SIZE_STEP;
+
+    // baked-in opacity of the whole particle layer
+    static final float LAYER_ALPHA = 0.9f;
+
+    // halo reaches this far past the disc radius (fraction of the diameter)
+    static final float GLOW_EXTENT = 0.25f;
+
+    private static final int PAD = 1;
+
+    // cell geometry per variant
+    private final int[][] cellX = new int[2][SIZE_BUCKETS];
+    private final int[][] cellW = new int[2][SIZE_BUCKETS];
+    private final int[] blockX = new int[2];
+    private final int[] rowH = new int[2];
+
+    private GraphicsConfiguration gc;
+    private BufferedImage atlas;
+
+    public ParticleSprites() {
+        int x = 0;
+        for (int v = SOLID; v <= GLOW; v++) {
+            blockX[v] = x;
+            int cx = 0;
+            int maxW = 0;
+            for (int b = 0; b < SIZE_BUCKETS; b++) {
+                int w = cellSize(v, b);
+                cellX[v][b] = cx;
+                cellW[v][b] = w;
+                cx += w + PAD;
+                maxW = Math.max(maxW, w);
+            }
+            rowH[v] = maxW + PAD;
+            x += cx;
+        }
+    }
+
+    /** Maps an explosion green jitter in [0.6, 0.9] to its tint bucket. */
+    static byte explosionTint(float green) {
+        int best = 0;
+        for (int i = 1; i < EXPLOSION_GREEN.length; i++) {
+            if (Math.abs(EXPLOSION_GREEN[i] - green) < Math.abs(EXPLOSION_GREEN[best] - green)) best = i;
+        }
+        return (byte) (1 + best);
+    }
+
+    /**
+     * Draws one particle centered on (x, y).
+     *
+     * @param alpha opacity 0..1
+     * @param diameter disc diameter in px (quantized to SIZE_STEP)
+     */
+    public void draw(Graphics2D g2, int variant, int tint, double x, double y, float alpha, float diameter) {
+        int a = alphaLevel(alpha);
+        if (a == 0) return;
+        blit(g2, variant, tint, a, bucket(diameter), x, y, 1);
+    }
+
+    /**
+     * Same, for a target whose transform was taken off: the particle goes to
+     * (x * scaleX + tx, y * scaleY + ty) at the scaled diameter, drawn
+     * unscaled from that diameter's bucket. Only particles bigger than
+     * MAX_SIZE get a scaled blit, which Java2D does through a path that
+     * allocates on every call.
+     */
+    void draw(Graphics2D g2, int variant, int tint, double x, double y, float alpha, float diameter,
+              double scaleX, double scaleY, double tx, double ty) {
+        int a = alphaLevel(alpha);
+        if (a == 0) return;
+
+        double px = x * scaleX + tx;
+        double py = y * scaleY + ty;
+        float d = (float) (diameter * (scaleX + scaleY) / 2);
+        if (d <= MAX_SIZE) blit(g2, variant, tint, a, bucket(d), px, py, 1);
+        else blit(g2, variant, tint, a, SIZE_BUCKETS - 1, px, py, d / MAX_SIZE);
+    }
+
+    // nearest level, so a particle is neither dimmed a step nor dropped before its alpha rounds to 0
+    private static int alphaLevel(float alpha) {
+        int a = Math.round(alpha * ALPHA_LEVELS);
+        if (a <= 0) return 0;
+        return Math.min(a, ALPHA_LEVELS);
+    }
+
+    private static int bucket(float diameter) {
+        int b = Math.round(diameter / SIZE_STEP) - 1;
+        if (b < 0) return 0;
+        return Math.min(b, SIZE_BUCKETS - 1);
+    }
+
+    // cell (variant, tint, alpha level a, size bucket b) centered on (x, y), scaled by k
+    private void blit(Graphics2D g2, int variant, int tint, int a, int b, double x, double y, double k) {
+        int w = cellW[variant][b];
+        int sx = blockX[variant] + cellX[variant][b];
+        int sy = (tint * ALPHA_LEVELS + (a - 1)) * rowH[variant];
+
+        int dw = k == 1 ? w : (int) Math.round(w * k);
+        int dx = (int) (x - dw / 2.0);
+        int dy = (int) (y - dw / 2.0);
+        g2.drawImage(atlas, dx, dy, dx + dw, dy + dw, sx, sy, sx + w, sy + w, null);
+    }
+
+    /** Makes sure the atlas matches the target's GraphicsConfiguration. */
+    public void validate(Graphics2D g2) {
+        GraphicsConfiguration target = g2.getDeviceConfiguration();
+        if (atlas != null && target == gc) return;
+
+        gc = target;
+        atlas = build(target);
+    }
+
+    private BufferedImage build(GraphicsConfiguration target) {
+        int w = blockX[GLOW] + cellX[GLOW][SIZE_BUCKETS - 1] + cellW[GLOW][SIZE_BUCKETS - 1];
+        int h = Math.max(rowH[SOLID], rowH[GLOW]) * TINT_COUNT * ALPHA_LEVELS;
+
+        BufferedImage img = target != null
+                ? target.createCompatibleImage(w, h, Transparency.TRANSLUCENT)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setComposite(AlphaComposite.Src);
+
+        for (int tint = 0; tint < TINT_COUNT; tint++) {
+            Color base = tintColor(tint);
+            for (int a = 1; a <= ALPHA_LEVELS; a++) {
+                float alpha = LAYER_ALPHA * a / ALPHA_LEVELS;
+                for (int b = 0; b < SIZE_BUCKETS; b++) {
+                    int d = (b + 1) * SIZE_STEP;
+
+                    int sy = (tint * ALPHA_LEVELS + (a - 1)) * rowH[SOLID];
+                    paintDisc(g, base, alpha, blockX[SOLID] + cellX[SOLID][b], sy, d);
+
+                    int gy = (tint * ALPHA_LEVELS + (a - 1)) * rowH[GLOW];
+                    paintGlow(g, base, alpha, blockX[GLOW] + cellX[GLOW][b], gy, cellW[GLOW][b], d);
+                }
+            }
+        }
+
+        g.dispose();
+        return img;
+    }
+
+    private static void paintDisc(Graphics2D g, Color base, float alpha, int x, int y, int d) {
+        g.setColor(withAlpha(base, alpha));
+        g.fillOval(x, y, d, d);
+    }
+
+    private static void paintGlow(Graphics2D g, Color base, float alpha, int x, int y, int cell, int d) {
+        float c = cell / 2f;
+        float outer = cell / 2f;
+        float inner = d / 2f;
+
+        // soft halo fading out past the disc edge
+        g.setComposite(AlphaComposite.SrcOver);
+        g.setPaint(new RadialGradientPaint(
+                x + c, y + c, outer,
+                new float[] { 0f, inner / outer, 1f },
+                new Color[] { withAlpha(base, alpha), withAlpha(base, alpha * 0.45f), withAlpha(base, 0f) }
+        ));
+        g.fillRect(x, y, cell, cell);
+
+        // core replaces the halo underneath instead of stacking on it
+        g.setComposite(AlphaComposite.Src);
+        g.setColor(withAlpha(base, alpha));
+        int off = (cell - d) / 2;
+        g.fillOval(x + off, y + off, d, d);
+    }
+
+    private static Color tintColor(int tint) {
+        return new Color(tintRgb(tint));
+    }
+
+    /** Tint as 0xRRGGBB. */
+    static int tintRgb(int tint) {
+        if (tint == TINT_FIRE) return 0xFF8000;
+        int g = Math.round(EXPLOSION_GREEN[tint - 1] * 255);
+        return 0xFF0000 | (g << 8) | 0x33;
+    }
+
+    private static Color withAlpha(Color c, float a) {
+        return new Color(c.getRed(), c.getGreen(), c.getBlue(), Math.round(Math.max(0f, Math.min(1f, a)) * 255));
+    }
+
+    private static int cellSize(int variant, int bucket) {
+        int d = (bucket + 1) * SIZE_STEP;
+        if (variant == SOLID) return d;
+        return d + 2 * (int) Math.ceil(d * GLOW_EXTENT);
+    }
+}
@@ -0,0 +1,294 @@
+package pong;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Particle stress mode: a fixed population of 1M+ particles that respawn at
+ * a few moving emitters as they die, integrated on all cores.
+ *
+ * Physics are the FIRE/EXPLOSION rules of FireTrail (exact drag over the
+ * step, FIRE rise, life in seconds), in float. Each particle carries a 0/1
+ * fire weight that blends the two kinds' per-step factors, so the hot loop
+ * has no branches. The population is split into cache-sized chunks that a
+ * ForkJoinPool works through; each chunk runs the integration kernel and
+ * then respawns its dead particles while the chunk is still in cache.
+ *
+ * The kernel uses the jdk.incubator.vector API when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, otherwise a scalar loop.
+ */
+public final class ParticleStress {
+
+    /** Integrates particles [from, to). */
+    interface Kernel {
+        String name();
+
+        void integrate(float[] x, float[] y, float[] vx, float[] vy, float[] life,
+                       float[] fire, int from, int to, Step step);
+    }
+
+    /** Explosion factors for one step, and what a fire weight of 1 adds to them (see Particle#decay). */
+    static final class Step {
+        final float dt;
+        final float decay, travel;
+        final float fireDecay, fireTravel, fireRise;
+
+        Step(double dt) {
+            this.dt = (float) dt;
+            double d = Particle.decay(Particle.EXPLOSION_DRAG, dt);
+            double t = Particle.travel(Particle.EXPLOSION_DRAG, dt);
+            decay = (float) d;
+            travel = (float) t;
+            fireDecay = (float) (Particle.decay(Particle.FIRE_DRAG, dt) - d);
+            fireTravel = (float) (Particle.travel(Particle.FIRE_DRAG, dt) - t);
+            fireRise = (float) -Particle.FIRE_RISE;
+        }
+    }
+
+    static final Kernel SCALAR = new Kernel() {
+        @Override
+        public String name() { return "scalar"; }
+
+        @Override
+        public void integrate(float[] x, float[] y, float[] vx, float[] vy, float[] life,
+                              float[] fire, int from, int to, Step s) {
+            for (int i = from; i < to; i++) {
+                float w = fire[i];
+                float decay = s.decay + w * s.fireDecay;
+                float travel = s.travel + w * s.fireTravel;
+                float rise = w * s.fireRise;
+
+                float rel = vy[i] - rise;
+                x[i] += vx[i] * travel;
+                y[i] += rel * travel + rise * s.dt;
+                vx[i] *= decay;
+                vy[i] = rise + rel * decay;
+                life[i] -= s.dt;
+            }
+        }
+    };
+
+    // 6 hot float arrays * 8K = 192 KB per chunk, fits L2 on anything recent
+    static final int CHUNK = 8 * 1024;
+
+    private static final int EMITTERS = 6;
+
+    private final int count;
+    final float[] x, y, vx, vy, life, maxLife, fire;
+    final byte[] type;
+
+    private final Kernel kernel;
+    private final ForkJoinPool pool;
+    private final GameRandom[] chunkRandom;
+
+    // emitters orbit the center, like a few balls flying around
+    private final float[] emX = new float[EMITTERS], emY = new float[EMITTERS];
+    private final float[] emVx = new float[EMITTERS], emVy = new float[EMITTERS];
+    private double time = 0;
+    private int width = 1, height = 1;
+
+    // throughput
+    private long updated = 0;
+    private long busyNanos = 0;
+    private double particlesPerSecond = 0;
+
+    // points view
+    private BufferedImage image;
+    private int[] pixels;
+
+    public ParticleStress(int count, GameRandom rnd) {
+        this(count, rnd, bestKernel(), ForkJoinPool.commonPool());
+    }
+
+    ParticleStress(int count, GameRandom rnd, Kernel kernel, ForkJoinPool pool) {
+        if (count <= 0) throw new IllegalArgumentException("count must be > 0: " + count);
+        this.count = count;
+        this.kernel = kernel;
+        this.pool = pool;
+
+        x = new float[count];
+        y = new float[count];
+        vx = new float[count];
+        vy = new float[count];
+        life = new float[count];
+        maxLife = new float[count];
+        fire = new float[count];
+        type = new byte[count];
+
+        int chunks = (count + CHUNK - 1) / CHUNK;
+        chunkRandom = new GameRandom[chunks];
+        for (int c = 0; c < chunks; c++) chunkRandom[c] = rnd.split();
+
+        moveEmitters(0);
+        for (int c = 0; c < chunks; c++) {
+            int from = c * CHUNK;
+            int to = Math.min(count, from + CHUNK);
+            for (int i = from; i < to; i++) {
+                spawn(i, chunkRandom[c]);
+                // spread the initial population over its lifetime, no big synchronized wave
+                life[i] *= (float) chunkRandom[c].nextDouble();
+            }
+        }
+    }
+
+    /** Vector kernel if jdk.incubator.vector is available (and not disabled by -Dpong.noSimd). */
+    static Kernel bestKernel() {
+        if (Boolean.getBoolean("pong.noSimd")) return SCALAR;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return SCALAR;
+        try {
+            return (Kernel) Class.forName("pong.VectorParticleKernel").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    public int count() { return count; }
+
+    public String kernelName() { return kernel.name(); }
+
+    /** Smoothed integration throughput (particles per second of update time). */
+    public double particlesPerSecond() { return particlesPerSecond; }
+
+    public void update(double dt, int w, int h) {
+        width = Math.max(1, w);
+        height = Math.max(1, h);
+        time += dt;
+        moveEmitters(time);
+
+        long start = System.nanoTime();
+        pool.invoke(new Chunks(0, chunkRandom.length, new Step(dt)));
+        long took = System.nanoTime() - start;
+
+        updated += count;
+        busyNanos += took;
+        if (busyNanos >= 250_000_000L) {
+            double pps = updated * 1e9 / busyNanos;
+            particlesPerSecond = particlesPerSecond == 0 ? pps : particlesPerSecond * 0.7 + pps * 0.3;
+            updated = 0;
+            busyNanos = 0;
+        }
+    }
+
+    // Runs one chunk: integrate, then respawn the dead while the data is hot.
+    void runChunk(int c, Step step) {
+        int from = c * CHUNK;
+        int to = Math.min(count, from + CHUNK);
+        kernel.integrate(x, y, vx, vy, life, fire, from, to, step);
+
+        GameRandom rnd = chunkRandom[c];
+        for (int i = from; i < to; i++) {
+            if (life[i] <= 0) spawn(i, rnd);
+        }
+    }
+
+    private void spawn(int i, GameRandom rnd) {
+        int e = rnd.nextInt(0, EMITTERS);
+        x[i] = emX[e];
+        y[i] = emY[e];
+
+        if (rnd.nextDouble() < 0.75) {
+            type[i] = Particle.FIRE;
+            double spread = Particle.FIRE_SPREAD;
+            vx[i] = (float) ((-emVx[e] * Particle.FIRE_BALL_INHERIT) + rnd.nextDouble(-spread, spread));
+            vy[i] = (float) ((-emVy[e] * Particle.FIRE_BALL_INHERIT) + rnd.nextDouble(-spread, spread));
+            maxLife[i] = (float) rnd.nextDouble(0.18, 0.35);
+            fire[i] = 1f;
+        } else {
+            type[i] = Particle.EXPLOSION;
+            double angle = rnd.nextDouble(0, Math.PI * 2);
+            double speed = rnd.nextDouble(Particle.EXPLOSION_MIN_SPEED, Particle.EXPLOSION_MAX_SPEED);
+            vx[i] = (float) (Math.cos(angle) * speed * Particle.EXPLOSION_SPEED_SCALE);
+            vy[i] = (float) (Math.sin(angle) * speed * Particle.EXPLOSION_SPEED_SCALE);
+            maxLife[i] = (float) rnd.nextDouble(0.20, 0.35);
+            fire[i] = 0f;
+        }
+        life[i] = maxLife[i];
+    }
+
+    private void moveEmitters(double t) {
+        double cx = width / 2.0;
+        double cy = height / 2.0;
+        for (int e = 0; e < EMITTERS; e++) {
+            double w = 0.7 + 0.25 * e;
+            double a = t * w + e * (Math.PI * 2 / EMITTERS);
+            double rx = width * (0.18 + 0.05 * e);
+            double ry = height * (0.15 + 0.05 * e);
+            emX[e] = (float) (cx + Math.cos(a) * rx);
+            emY[e] = (float) (cy + Math.sin(a) * ry);
+            emVx[e] = (float) (-Math.sin(a) * rx * w);
+            emVy[e] = (float) (Math.cos(a) * ry * w);
+        }
+    }
+
+    /** Plots every particle as one additive pixel into an offscreen image and draws that. */
+    public void draw(Graphics2D g2, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+        if (image == null || image.getWidth() != w || image.getHeight() != h) {
+            image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        java.util.Arrays.fill(pixels, 0);
+
+        for (int i = 0; i < count; i++) {
+            int px = (int) x[i];
+            int py = (int) y[i];
+            if (px < 0 || py < 0 || px >= w || py >= h) continue;
+
+            int idx = py * w + px;
+            int c = pixels[idx];
+            // additive, saturating: fire adds orange, explosion adds yellow
+            int r = Math.min(255, ((c >> 16) & 0xFF) + 24);
+            int g = Math.min(255, ((c >> 8) & 0xFF) + (type[i] == Particle.FIRE ? 10 : 18));
+            int b = Math.min(255, (c & 0xFF) + 2);
+            pixels[idx] = (r << 16) | (g << 8) | b;
+        }
+
+        g2.drawImage(image, 0, 0, null);
+    }
+
+    private final class Chunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final Step step;
+
+        Chunks(int from, int to, Step step) {
+            this.from = from;
+            this.to = to;
+            this.step = step;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) runChunk(from, step);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunks(from, mid, step), new Chunks(mid, to, step));
+        }
+    }
+
+    /** Headless throughput run: {@code ParticleStress [particles] [seconds]}. */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 10;
+
+        ParticleStress stress = new ParticleStress(n, new GameRandom(1));
+        System.out.printf("%,d particles, kernel %s, %d threads%n",
+                n, stress.kernelName(), ForkJoinPool.commonPool().getParallelism() + 1);
+
+        long end = System.nanoTime() + (long) (seconds * 1e9);
+        long nextReport = System.nanoTime() + 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            stress.update(1 / 120.0, 1920, 1080);
+            if (System.nanoTime() >= nextReport) {
+                System.out.printf("%,.0f particles/s%n", stress.particlesPerSecond());
+                nextReport += 1_000_000_000L;
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package pong;
+
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Frame timing overlay (toggle with F3): rolling frame-time graph,
+ * p50/p99/max, smoothed time per tick and frame phase, how long snapshots
+ * take from the simulation to the renderer, live object counts and bytes
+ * allocated per frame on the render thread / per tick on the simulation
+ * thread.
+ *
+ * Collection only writes into preallocated arrays. Drawing the overlay is
+ * done after the frame's allocation counter is read, so it does not show up
+ * in its own numbers.
+ */
+final class PerfOverlay {
+
+    // tick phases (simulation thread)
+    static final int TICK_SIM = 0;
+    static final int TICK_PARTICLES = 1;
+
+    // frame phases (render thread): background effects advance, then paint
+    static final int UPDATE_STARS = 2;
+    static final int UPDATE_SHOOTING = 3;
+    static final int PAINT_STARS = 4;
+    static final int PAINT_SHOOTING = 5;
+    static final int PAINT_PARTICLES = 6;
+    static final int PAINT_PADDLES = 7;
+    static final int PAINT_HUD = 8;
+
+    static final int PHASES = 9;
+
+    private static final String[] PHASE_NAMES = {
+            "simulation.step", "fireTrail.update", "starField.update", "updateShootingStars",
+            "starField.draw", "drawShootingStars", "fireTrail.draw", "ball + drawPaddle", "drawHud + edges"
+    };
+
+    private static final int HISTORY = 240;
+    private static final double SMOOTH = 0.05;     // EMA weight of a new sample
+
+    private static final Color BG = new Color(0, 0, 0, 170);
+    private static final Color TEXT = new Color(220, 255, 220);
+    private static final Color BAR = new Color(90, 220, 120);
+    private static final Color BAR_SLOW = new Color(240, 90, 70);
+    private static final Color BUDGET = new Color(255, 255, 255, 80);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    private volatile boolean visible = false;
+
+    private final double[] phaseAvg = new double[PHASES];
+
+    private final long[] frameTimes = new long[HISTORY];
+    private final long[] sorted = new long[HISTORY];
+    private int head = 0;
+    private int filled = 0;
+    private long lastFrameStart = 0;
+
+    // snapshot hand-off: publish on the simulation thread -> pickup by the renderer
+    private final long[] handoffTimes = new long[HISTORY];
+    private int handoffHead = 0;
+    private int handoffFilled = 0;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private long frameAllocStart, tickAllocStart;
+    private long frameBytes = -1, tickBytes = -1;
+
+    // per-phase time and allocation since the last takePhases(), for FrameBudget; off in the game
+    private boolean collecting;
+    private final long[] phaseNanos = new long[PHASES];
+    private final long[] phaseBytes = new long[PHASES];
+    private long lapBytes;
+
+    // text is built here and drawn with drawChars
+    private final StringBuilder sb = new StringBuilder(96);
+    private char[] chars = new char[96];
+
+    PerfOverlay() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()) {
+            sun.setThreadAllocatedMemoryEnabled(true);
+            threads = sun;
+        } else {
+            threads = null;
+        }
+    }
+
+    boolean isVisible() { return visible; }
+
+    void toggle() {
+        visible = !visible;
+        lastFrameStart = 0;
+    }
+
+    long mark() {
+        if (collecting) lapBytes = threads.getCurrentThreadAllocatedBytes();
+        return System.nanoTime();
+    }
+
+    static String phaseName(int phase) { return PHASE_NAMES[phase]; }
+
+    /** Adds the time since {@code since} to a phase (and a JFR recording) and returns now, for chaining. */
+    long lap(int phase, long since) {
+        long now = System.nanoTime();
+        if (visible) phaseAvg[phase] += ((now - since) - phaseAvg[phase]) * SMOOTH;
+        if (collecting) {
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            phaseNanos[phase] += now - since;
+            phaseBytes[phase] += bytes - lapBytes;
+            lapBytes = bytes;
+        }
+        GameEvents.phase(phase, now - since);
+        return now;
+    }
+
+    /**
+     * Starts adding up time and bytes allocated per phase; the phases of a
+     * frame must run on one thread. Returns false if this JVM cannot count
+     * allocations per thread.
+     */
+    boolean collectPhases() {
+        collecting = threads != null;
+        return collecting;
+    }
+
+    /** Copies the per-phase totals since the last call into nanos and bytes, and starts over. */
+    void takePhases(long[] nanos, long[] bytes) {
+        System.arraycopy(phaseNanos, 0, nanos, 0, PHASES);
+        System.arraycopy(phaseBytes, 0, bytes, 0, PHASES);
+        Arrays.fill(phaseNanos, 0);
+        Arrays.fill(phaseBytes, 0);
+    }
+
+    void tickStart() {
+        if (visible && threads != null) tickAllocStart = threads.getCurrentThreadAllocatedBytes();
+    }
+
+    void tickEnd() {
+        if (visible && threads != null) tickBytes = threads.getCurrentThreadAllocatedBytes() - tickAllocStart;
+    }
+
+    void frameStart() {
+        if (!visible) return;
+
+        long now = System.nanoTime();
+        if (lastFrameStart != 0) {
+            frameTimes[head] = now - lastFrameStart;
+            head = (head + 1) % HISTORY;
+            if (filled < HISTORY) filled++;
+        }
+        lastFrameStart = now;
+
+        if (threads != null) frameAllocStart = threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /** The renderer picked up a new snapshot nanos after it was published. */
+    void handoff(long nanos) {
+        if (!visible) return;
+        handoffTimes[handoffHead] = nanos;
+        handoffHead = (handoffHead + 1) % HISTORY;
+        if (handoffFilled < HISTORY) handoffFilled++;
+    }
+
+    void frameEnd() {
+        if (visible && threads != null) frameBytes = threads.getCurrentThreadAllocatedBytes() - frameAllocStart;
+    }
+
+    void draw(Graphics2D g2, int x, int y, int particles, int stars, int shootingStars, QualityGovernor quality) {
+        if (!visible) return;
+
+        int lineH = 15;
+        int graphH = 60;
+        int w = 340;
+        int h = 16 + lineH * (8 + PHASES) + graphH;
+
+        Composite oldC = g2.getComposite();
+        g2.setComposite(AlphaComposite.SrcOver);
+        g2.setColor(BG);
+        g2.fillRect(x, y, w, h);
+        g2.setFont(FONT);
+
+        // percentiles over the window
+        System.arraycopy(frameTimes, 0, sorted, 0, filled);
+        Arrays.sort(sorted, 0, filled);
+        long p50 = filled > 0 ? sorted[(filled - 1) / 2] : 0;
+        long p99 = filled > 0 ? sorted[(int) ((filled - 1) * 0.99)] : 0;
+        long max = filled > 0 ? sorted[filled - 1] : 0;
+
+        int ty = y + 16;
+        g2.setColor(TEXT);
+
+        sb.setLength(0);
+        sb.append("frame p50 ");
+        appendMillis(p50);
+        sb.append("  p99 ");
+        appendMillis(p99);
+        sb.append("  max ");
+        appendMillis(max);
+        text(g2, x + 8, ty);
+        ty += lineH;
+
+        // hand-off percentiles reuse the sort buffer
+        System.arraycopy(handoffTimes, 0, sorted, 0, handoffFilled);
+        Arrays.sort(sorted, 0, handoffFilled);
+        sb.setLength(0);
+        sb.append("handoff p50 ");
+        appendMillis(handoffFilled > 0 ? sorted[(handoffFilled - 1) / 2] : 0);
+        sb.append("  max ");
+        appendMillis(handoffFilled > 0 ? sorted[handoffFilled - 1] : 0);
+        text(g2, x + 8, ty);
+        ty += lineH;
+
+        sb.setLength(0);
+        sb.append("alloc/frame (render) ");
+        appendBytes(frameBytes);
+        text(g2, x + 8, ty);
+        ty += lineH;
+
+        sb.setLength(0);
+        sb.append("alloc/tick (sim) ");
+        appendBytes(tickBytes);
+        text(g2, x + 8, ty);
+        ty += lineH;
+
+        sb.setLength(0);
+        sb.append("particles ").append(particles).append("  stars ").append(stars)
+                .append("  shooting ").append(shootingStars);
+        text(g2, x + 8, ty);
+        ty += lineH;
+
+        sb.setLength(0);
+        sb.append("quality ").append(quality.level()).append('/').append(QualityGovernor.HIGHEST)
+                .append(quality.isPinned() ? " pinned" : "").append("  work ");
+        appendMillis((long) Math.max(0, quality.averageNanos()));
+        sb.append(" / ");
+        appendMillis(quality.budgetNanos());
+        text(g2, x + 8, ty);
+        ty += lineH + 4;
+
+        for (int p = 0; p < PHASES; p++) {
+            sb.setLength(0);
+            sb.append(p < UPDATE_STARS ? "tick  " : p < PAINT_STARS ? "frame " : "paint ").append(PHASE_NAMES[p]);
+            while (sb.length() < 28) sb.append(' ');
+            appendMillis((long) phaseAvg[p]);
+            text(g2, x + 8, ty);
+            ty += lineH;
+        }
+
+        // frame-time graph, newest on the right; the governor's budget is the line halfway up
+        long budget = quality.budgetNanos();
+        long graphMax = 2 * budget;
+        int gx = x + 10;
+        int gy = ty + 4 + graphH;
+        for (int i = 0; i < filled; i++) {
+            long ft = frameTimes[(head - filled + i + HISTORY) % HISTORY];
+            int bh = (int) (Math.min(ft, graphMax) * graphH / graphMax);
+            g2.setColor(ft > budget ? BAR_SLOW : BAR);
+            g2.drawLine(gx + (HISTORY - filled) + i, gy, gx + (HISTORY - filled) + i, gy - bh);
+        }
+        int budgetY = gy - graphH / 2;
+        g2.setColor(BUDGET);
+        g2.drawLine(gx, budgetY, gx + HISTORY, budgetY);
+
+        g2.setComposite(oldC);
+    }
+
+    private void appendMillis(long nanos) {
+        long hundredths = nanos / 10_000;
+        sb.append(hundredths / 100).append('.');
+        long frac = hundredths % 100;
+        if (frac < 10) sb.append('0');
+        sb.append(frac).append(" ms");
+    }
+
+    private void appendBytes(long bytes) {
+        if (bytes < 0) sb.append("n/a");
+        else if (bytes < 10_000) sb.append(bytes).append(" B");
+        else sb.append(bytes / 1024).append(" KB");
+    }
+
+    private void text(Graphics2D g2, int x, int y) {
+        int n = sb.length();
+        if (chars.length < n) chars = new char[n * 2];
+        sb.getChars(0, n, chars, 0);
+        g2.drawChars(chars, 0, n, x, y);
+    }
+}
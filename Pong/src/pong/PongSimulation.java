@@ -0,0 +1,448 @@
+package pong;
+
+/**
+ * Ball/paddle physics, scoring and effect timers of one match, without any
+ * Swing or AWT dependency. Works under java.awt.headless=true.
+ *
+ * Everything lives in a {@link PongState}; {@link #step} advances it by dt
+ * with the given input bits. Visual effects that are not part of the game
+ * state (particles, stars) hook in through a {@link Listener}.
+ */
+public final class PongSimulation {
+
+    // input bits
+    public static final int LEFT_UP = 1;
+    public static final int LEFT_DOWN = 1 << 1;
+    public static final int RIGHT_UP = 1 << 2;
+    public static final int RIGHT_DOWN = 1 << 3;
+
+    // Logical playfield: the game runs in these units whatever the window size
+    public static final int FIELD_WIDTH = 1280;
+    public static final int FIELD_HEIGHT = 720;
+
+    // Ball
+    public static final int BALL_SIZE = 20;
+    public static final double LAUNCH_SPEED = 1020.0;
+
+    // Paddle configuration
+    public static final int PADDLE_WIDTH = 14;
+    public static final int PADDLE_HEIGHT = 110;
+    public static final int PADDLE_MARGIN = 30;
+    public static final double PADDLE_SPEED = 720.0;
+
+    // Physics
+    public static final double BALL_RESTITUTION = 1.0;
+
+    // Ball spin tuning
+    public static final double SPIN_FACTOR = 0.35;
+    public static final double MAX_BALL_SPEED = 1500;
+    public static final double MIN_BALL_SPEED = 800;
+
+    // Effects
+    public static final double GLOW_DURATION = 0.18;
+    public static final double EDGE_FLASH_DURATION = 0.18;
+    public static final double HIT_SHAKE_DURATION = 0.10;
+    public static final int HIT_SHAKE_STRENGTH = 12;
+    // new shake offsets per second, whatever the tick rate
+    public static final double SHAKE_RATE = 60;
+
+    // Ball within this distance of the left/right edge counts as a goal
+    private static final int SCORE_ZONE = 10;
+
+    // Contacts resolved per tick before the rest of the tick is moved without collisions
+    private static final int MAX_CONTACTS = 16;
+
+    private static final int NO_CONTACT = 0;
+    private static final int WALL_LEFT = 1;
+    private static final int WALL_RIGHT = 2;
+    private static final int WALL_TOP = 3;
+    private static final int WALL_BOTTOM = 4;
+    private static final int PADDLE_LEFT = 5;
+    private static final int PADDLE_RIGHT = 6;
+
+    /** Gameplay events for effects outside the simulation state. */
+    public interface Listener {
+        Listener NONE = new Listener() {};
+
+        /**
+         * (x, y) is the contact point on the paddle face, speed the ball's
+         * speed after the bounce (clamped) and spin the vertical velocity
+         * the paddle's movement added, both in px/s.
+         */
+        default void paddleHit(boolean left, double x, double y, double speed, double spin) {}
+
+        /** leftScored: the left player got the point. */
+        default void scored(boolean leftScored) {}
+    }
+
+    private final PongState s;
+    private Listener listener = Listener.NONE;
+    private MultiBall balls;
+
+    // the ball being moved: the state's ball, or one slot of the multi-ball set
+    private double bx, by, bvx, bvy, bSize;
+    private boolean bScored;
+
+    public PongSimulation() {
+        this(new PongState(), new GameRandom().nextLong());
+    }
+
+    /** Same seed, same inputs and dts: same match, bit for bit. */
+    public PongSimulation(long seed) {
+        this(new PongState(), seed);
+    }
+
+    public PongSimulation(PongState state, long seed) {
+        this.s = state;
+        s.rng = seed;
+    }
+
+    public PongState state() { return s; }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : Listener.NONE;
+    }
+
+    public Listener listener() { return listener; }
+
+    /**
+     * Plays with all balls of the set (null = just the state's ball). The
+     * state's ball becomes slot 0; the others are launched on the next step.
+     * Not part of {@link PongState}, so snapshots, replays and netplay only
+     * cover the single-ball game.
+     */
+    public void setBalls(MultiBall balls) {
+        this.balls = balls;
+        if (balls != null) balls.launched = false;
+    }
+
+    public MultiBall balls() { return balls; }
+
+    /** Starts over with a fresh state (scores 0) and the given seed; the next resize launches the ball. */
+    public void newMatch(long seed) {
+        s.copyFrom(new PongState());
+        s.rng = seed;
+    }
+
+    /** Sets the playfield size; the first call also centers and launches the ball. */
+    public void resize(int w, int h) {
+        s.width = w;
+        s.height = h;
+        if (!s.initialized && w > 0 && h > 0) reset();
+    }
+
+    /** Centers ball and paddles and launches the ball in a random direction. Scores are kept. */
+    public void reset() {
+        int w = s.width;
+        int h = s.height;
+
+        s.x = (w - BALL_SIZE) / 2.0;
+        s.y = (h - BALL_SIZE) / 2.0;
+
+        double angle = nextDouble(0, Math.PI * 2);
+        s.vx = Math.cos(angle) * LAUNCH_SPEED;
+        s.vy = Math.sin(angle) * LAUNCH_SPEED;
+
+        s.leftPaddleY = (h - PADDLE_HEIGHT) / 2.0;
+        s.rightPaddleY = (h - PADDLE_HEIGHT) / 2.0;
+        s.leftPaddleVel = 0;
+        s.rightPaddleVel = 0;
+        s.initialized = true;
+    }
+
+    public static double leftPaddleX() {
+        return PADDLE_MARGIN;
+    }
+
+    public static double rightPaddleX(int w) {
+        return w - PADDLE_MARGIN - PADDLE_WIDTH;
+    }
+
+    public void step(double dt, int inputs) {
+        if (!startStep(dt)) return;
+
+        double prevLeft = s.leftPaddleY;
+        double prevRight = s.rightPaddleY;
+
+        if ((inputs & LEFT_UP) != 0) s.leftPaddleY -= PADDLE_SPEED * dt;
+        if ((inputs & LEFT_DOWN) != 0) s.leftPaddleY += PADDLE_SPEED * dt;
+        if ((inputs & RIGHT_UP) != 0) s.rightPaddleY -= PADDLE_SPEED * dt;
+        if ((inputs & RIGHT_DOWN) != 0) s.rightPaddleY += PADDLE_SPEED * dt;
+
+        finishStep(dt, prevLeft, prevRight);
+    }
+
+    /**
+     * Like {@link #step(double, int)}, but each paddle travels its axis times
+     * PADDLE_SPEED * dt: -1 is up for the whole tick, +1 down, and fractions
+     * come from keys held for only part of the tick.
+     */
+    public void step(double dt, double leftAxis, double rightAxis) {
+        if (!startStep(dt)) return;
+
+        double prevLeft = s.leftPaddleY;
+        double prevRight = s.rightPaddleY;
+
+        s.leftPaddleY += PADDLE_SPEED * dt * Math.max(-1, Math.min(1, leftAxis));
+        s.rightPaddleY += PADDLE_SPEED * dt * Math.max(-1, Math.min(1, rightAxis));
+
+        finishStep(dt, prevLeft, prevRight);
+    }
+
+    private boolean startStep(double dt) {
+        if (s.width <= 0 || s.height <= 0 || dt <= 0) return false;
+        if (!s.initialized) reset();
+
+        s.tick++;
+        return true;
+    }
+
+    // everything after the paddles got their input
+    private void finishStep(double dt, double prevLeft, double prevRight) {
+        int w = s.width;
+        int h = s.height;
+
+        s.leftPaddleY = Math.max(0, Math.min(h - PADDLE_HEIGHT, s.leftPaddleY));
+        s.rightPaddleY = Math.max(0, Math.min(h - PADDLE_HEIGHT, s.rightPaddleY));
+
+        s.leftPaddleVel = (s.leftPaddleY - prevLeft) / dt;
+        s.rightPaddleVel = (s.rightPaddleY - prevRight) / dt;
+
+        if (balls == null) {
+            loadBall(s.x, s.y, s.vx, s.vy, BALL_SIZE, s.scoredThisPass);
+            moveBall(dt, w, h, prevLeft, prevRight);
+            s.x = bx; s.y = by; s.vx = bvx; s.vy = bvy;
+            s.scoredThisPass = bScored;
+        } else {
+            moveBalls(dt, w, h, prevLeft, prevRight);
+        }
+
+        s.leftGlowTime = Math.max(0.0, s.leftGlowTime - dt);
+        s.rightGlowTime = Math.max(0.0, s.rightGlowTime - dt);
+        s.leftEdgeFlash = Math.max(0.0, s.leftEdgeFlash - dt);
+        s.rightEdgeFlash = Math.max(0.0, s.rightEdgeFlash - dt);
+
+        if (s.shakeTimeLeft > 0) {
+            s.shakeTimeLeft -= dt;
+            // time owed carries over like the emitters' fireDue, so a change of dt moves no offset early or late
+            s.shakeDue += dt * SHAKE_RATE;
+            if (s.shakeDue >= 1) {
+                s.shakeDue -= Math.floor(s.shakeDue);
+                double t = Math.max(0.0, s.shakeTimeLeft) / Math.max(0.0001, s.shakeDuration);
+                int strengthNow = (int) Math.round(s.shakeStrength * t);
+                s.shakeOffsetX = nextInt(-strengthNow, strengthNow + 1);
+                s.shakeOffsetY = nextInt(-strengthNow, strengthNow + 1);
+            }
+        } else {
+            s.shakeOffsetX = 0;
+            s.shakeOffsetY = 0;
+        }
+    }
+
+    // Multi-ball: the state's ball is slot 0, every slot runs the same wall/paddle/score code, then balls collide.
+    private void moveBalls(double dt, int w, int h, double prevLeft, double prevRight) {
+        MultiBall b = balls;
+        b.x[0] = s.x; b.y[0] = s.y; b.vx[0] = s.vx; b.vy[0] = s.vy;
+        b.size[0] = BALL_SIZE;
+        b.scored[0] = s.scoredThisPass;
+        if (!b.launched) launchExtras(b, w, h);
+
+        b.savePrevious();
+        for (int i = 0; i < b.count; i++) {
+            loadBall(b.x[i], b.y[i], b.vx[i], b.vy[i], b.size[i], b.scored[i]);
+            moveBall(dt, w, h, prevLeft, prevRight);
+            b.x[i] = bx; b.y[i] = by; b.vx[i] = bvx; b.vy[i] = bvy;
+            b.scored[i] = bScored;
+        }
+        b.collide(w, h);
+
+        s.x = b.x[0]; s.y = b.y[0]; s.vx = b.vx[0]; s.vy = b.vy[0];
+        s.scoredThisPass = b.scored[0];
+    }
+
+    // extra balls start spread over the field, each in a random direction at launch speed
+    private void launchExtras(MultiBall b, int w, int h) {
+        for (int i = 1; i < b.count; i++) {
+            double size = b.size[i];
+            b.x[i] = nextDouble(PADDLE_MARGIN + PADDLE_WIDTH, Math.max(PADDLE_MARGIN + PADDLE_WIDTH, w - PADDLE_MARGIN - PADDLE_WIDTH - size));
+            b.y[i] = nextDouble(0, Math.max(0, h - size));
+            double angle = nextDouble(0, Math.PI * 2);
+            b.vx[i] = Math.cos(angle) * LAUNCH_SPEED;
+            b.vy[i] = Math.sin(angle) * LAUNCH_SPEED;
+            b.scored[i] = false;
+        }
+        b.launched = true;
+    }
+
+    private void loadBall(double x, double y, double vx, double vy, double size, boolean scored) {
+        bx = x; by = y; bvx = vx; bvy = vy;
+        bSize = size;
+        bScored = scored;
+    }
+
+    /**
+     * Moves the current ball through the tick contact by contact: find the
+     * earliest time of impact with a wall or a paddle (swept against the
+     * paddle's own motion during the tick), advance to it, bounce, repeat.
+     * Nothing tunnels however large dt is, and several bounces in one tick
+     * happen in order.
+     */
+    private void moveBall(double dt, int w, int h, double prevLeft, double prevRight) {
+        double leftX = leftPaddleX();
+        double rightX = rightPaddleX(w);
+        double maxX = w - bSize;
+        double maxY = h - bSize;
+
+        // a resize can leave the ball outside the field
+        if (bx < 0) { bx = 0; bvx = Math.abs(bvx); }
+        else if (bx > maxX) { bx = maxX; bvx = -Math.abs(bvx); }
+        if (by < 0) { by = 0; bvy = Math.abs(bvy); }
+        else if (by > maxY) { by = maxY; bvy = -Math.abs(bvy); }
+
+        double t = 0;
+        for (int contacts = 0; contacts < MAX_CONTACTS && t < dt; contacts++) {
+            double rem = dt - t;
+            double hit = rem;
+            int what = NO_CONTACT;
+
+            if (bvx < 0 && -bx / bvx < hit) { hit = -bx / bvx; what = WALL_LEFT; }
+            if (bvx > 0 && (maxX - bx) / bvx < hit) { hit = (maxX - bx) / bvx; what = WALL_RIGHT; }
+            if (bvy < 0 && -by / bvy < hit) { hit = -by / bvy; what = WALL_TOP; }
+            if (bvy > 0 && (maxY - by) / bvy < hit) { hit = (maxY - by) / bvy; what = WALL_BOTTOM; }
+
+            // paddles only stop a ball moving towards the field edge behind them
+            if (bvx < 0) {
+                double toi = sweep(leftX, prevLeft + s.leftPaddleVel * t, s.leftPaddleVel, hit);
+                if (toi >= 0) { hit = toi; what = PADDLE_LEFT; }
+            } else if (bvx > 0) {
+                double toi = sweep(rightX, prevRight + s.rightPaddleVel * t, s.rightPaddleVel, hit);
+                if (toi >= 0) { hit = toi; what = PADDLE_RIGHT; }
+            }
+
+            bx += bvx * hit;
+            by += bvy * hit;
+            t += hit;
+
+            switch (what) {
+                case WALL_LEFT: bx = 0; bvx = Math.abs(bvx); break;
+                case WALL_RIGHT: bx = maxX; bvx = -Math.abs(bvx); break;
+                case WALL_TOP: by = 0; bvy = Math.abs(bvy); break;
+                case WALL_BOTTOM: by = maxY; bvy = -Math.abs(bvy); break;
+                case PADDLE_LEFT: hitPaddle(true, leftX + PADDLE_WIDTH); break;
+                case PADDLE_RIGHT: hitPaddle(false, rightX - bSize); break;
+                default: break;
+            }
+            checkScore(w);
+        }
+
+        // out of contacts (ball wedged somewhere): finish the tick without collisions
+        if (t < dt) {
+            bx = Math.max(0, Math.min(maxX, bx + bvx * (dt - t)));
+            by = Math.max(0, Math.min(maxY, by + bvy * (dt - t)));
+            checkScore(w);
+        }
+    }
+
+    /**
+     * Swept AABB of the ball against a paddle at (px, py) moving vertically
+     * with pv. Returns the time of impact within [0, maxT], or -1. Touching
+     * counts as a hit, like the old overlap test.
+     */
+    private double sweep(double px, double py, double pv, double maxT) {
+        double rvx = bvx;
+        double rvy = bvy - pv; // relative to the paddle
+
+        double xEntry, xExit;
+        if (rvx > 0) {
+            xEntry = (px - (bx + bSize)) / rvx;
+            xExit = (px + PADDLE_WIDTH - bx) / rvx;
+        } else {
+            xEntry = (px + PADDLE_WIDTH - bx) / rvx;
+            xExit = (px - (bx + bSize)) / rvx;
+        }
+
+        double yEntry, yExit;
+        if (rvy > 0) {
+            yEntry = (py - (by + bSize)) / rvy;
+            yExit = (py + PADDLE_HEIGHT - by) / rvy;
+        } else if (rvy < 0) {
+            yEntry = (py + PADDLE_HEIGHT - by) / rvy;
+            yExit = (py - (by + bSize)) / rvy;
+        } else if (by + bSize >= py && by <= py + PADDLE_HEIGHT) {
+            yEntry = Double.NEGATIVE_INFINITY;
+            yExit = Double.POSITIVE_INFINITY;
+        } else {
+            return -1;
+        }
+
+        double entry = Math.max(xEntry, yEntry);
+        double exit = Math.min(xExit, yExit);
+        if (entry > exit || exit < 0 || entry > maxT) return -1;
+        return Math.max(0, entry);
+    }
+
+    private void hitPaddle(boolean left, double faceX) {
+        bx = faceX;
+        bvx = -bvx * BALL_RESTITUTION;
+
+        double spin = (left ? s.leftPaddleVel : s.rightPaddleVel) * SPIN_FACTOR;
+        bvy += spin;
+
+        startShake(HIT_SHAKE_DURATION, HIT_SHAKE_STRENGTH);
+        if (left) s.leftGlowTime = GLOW_DURATION;
+        else s.rightGlowTime = GLOW_DURATION;
+
+        clampBallSpeed();
+        listener.paddleHit(left, left ? bx : bx + bSize, by + bSize / 2.0, Math.hypot(bvx, bvy), spin);
+    }
+
+    private void checkScore(int w) {
+        if (!bScored) {
+            if (bx < SCORE_ZONE) {
+                s.score2++;
+                bScored = true;
+                s.leftEdgeFlash = EDGE_FLASH_DURATION;
+                listener.scored(false);
+            } else if (bx + bSize > w - SCORE_ZONE) {
+                s.score1++;
+                bScored = true;
+                s.rightEdgeFlash = EDGE_FLASH_DURATION;
+                listener.scored(true);
+            }
+        }
+        if (bx > SCORE_ZONE && bx + bSize < w - SCORE_ZONE) bScored = false;
+    }
+
+    // RNG lives in the state so snapshots and replays include it
+    private double nextDouble(double lo, double hi) {
+        s.rng = GameRandom.next(s.rng);
+        return lo + (hi - lo) * GameRandom.toDouble(GameRandom.mix64(s.rng));
+    }
+
+    private int nextInt(int lo, int hi) {
+        return lo + (int) ((hi - lo) * nextDouble(0, 1));
+    }
+
+    private void startShake(double durationSeconds, int strengthPixels) {
+        // a fresh shake moves on its first tick
+        if (s.shakeTimeLeft <= 0) s.shakeDue = 1;
+        s.shakeTimeLeft = Math.max(s.shakeTimeLeft, durationSeconds);
+        s.shakeDuration = durationSeconds;
+        s.shakeStrength = strengthPixels;
+    }
+
+    private void clampBallSpeed() {
+        double speed = Math.hypot(bvx, bvy);
+        if (speed <= 0.0001) return;
+
+        if (speed > MAX_BALL_SPEED) {
+            double k = MAX_BALL_SPEED / speed;
+            bvx *= k;
+            bvy *= k;
+        } else if (speed < MIN_BALL_SPEED) {
+            double k = MIN_BALL_SPEED / speed;
+            bvx *= k;
+            bvy *= k;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package pong;
+
+/**
+ * Complete gameplay state of one match. Plain fields only, so it can be
+ * copied into a preallocated instance as a snapshot.
+ */
+public final class PongState {
+
+    // playfield
+    int width, height;
+    boolean initialized = false;
+
+    // ball (top-left corner)
+    double x, y;
+    double vx, vy;
+
+    // paddles (top edge) and their velocity for spin
+    double leftPaddleY, rightPaddleY;
+    double leftPaddleVel, rightPaddleVel;
+
+    int score1 = 0;
+    int score2 = 0;
+    boolean scoredThisPass = false;
+
+    // effect timers
+    double leftGlowTime, rightGlowTime;
+    double leftEdgeFlash, rightEdgeFlash;
+
+    double shakeTimeLeft = 0.0;
+    double shakeDuration = 0.10;
+    int shakeStrength = 12;
+    int shakeOffsetX, shakeOffsetY;
+    double shakeDue;    // new offsets owed, in 1 / PongSimulation.SHAKE_RATE s
+
+    // SplitMix64 state of the simulation's RNG (launch angles, shake), see GameRandom
+    long rng = 0;
+
+    long tick = 0;
+
+    public int score1() { return score1; }
+
+    public int score2() { return score2; }
+
+    public long tick() { return tick; }
+
+    public void copyFrom(PongState o) {
+        width = o.width;
+        height = o.height;
+        initialized = o.initialized;
+
+        x = o.x;
+        y = o.y;
+        vx = o.vx;
+        vy = o.vy;
+
+        leftPaddleY = o.leftPaddleY;
+        rightPaddleY = o.rightPaddleY;
+        leftPaddleVel = o.leftPaddleVel;
+        rightPaddleVel = o.rightPaddleVel;
+
+        score1 = o.score1;
+        score2 = o.score2;
+        scoredThisPass = o.scoredThisPass;
+
+        leftGlowTime = o.leftGlowTime;
+        rightGlowTime = o.rightGlowTime;
+        leftEdgeFlash = o.leftEdgeFlash;
+        rightEdgeFlash = o.rightEdgeFlash;
+
+        shakeTimeLeft = o.shakeTimeLeft;
+        shakeDuration = o.shakeDuration;
+        shakeStrength = o.shakeStrength;
+        shakeOffsetX = o.shakeOffsetX;
+        shakeOffsetY = o.shakeOffsetY;
+        shakeDue = o.shakeDue;
+
+        rng = o.rng;
+        tick = o.tick;
+    }
+
+    /**
+     * Hash over every field, for checking that two runs ended bit-identical.
+     * shakeDue is left out so recordings made before it existed still check
+     * out; it only decides when the RNG is drawn, which rng covers.
+     */
+    public long hash() {
+        long h = 17;
+        h = mix(h, width);
+        h = mix(h, height);
+        h = mix(h, initialized ? 1 : 0);
+        h = mix(h, Double.doubleToLongBits(x));
+        h = mix(h, Double.doubleToLongBits(y));
+        h = mix(h, Double.doubleToLongBits(vx));
+        h = mix(h, Double.doubleToLongBits(vy));
+        h = mix(h, Double.doubleToLongBits(leftPaddleY));
+        h = mix(h, Double.doubleToLongBits(rightPaddleY));
+        h = mix(h, Double.doubleToLongBits(leftPaddleVel));
+        h = mix(h, Double.doubleToLongBits(rightPaddleVel));
+        h = mix(h, score1);
+        h = mix(h, score2);
+        h = mix(h, scoredThisPass ? 1 : 0);
+        h = mix(h, Double.doubleToLongBits(leftGlowTime));
+        h = mix(h, Double.doubleToLongBits(rightGlowTime));
+        h = mix(h, Double.doubleToLongBits(leftEdgeFlash));
+        h = mix(h, Double.doubleToLongBits(rightEdgeFlash));
+        h = mix(h, Double.doubleToLongBits(shakeTimeLeft));
+        h = mix(h, Double.doubleToLongBits(shakeDuration));
+        h = mix(h, shakeStrength);
+        h = mix(h, shakeOffsetX);
+        h = mix(h, shakeOffsetY);
+        h = mix(h, rng);
+        h = mix(h, tick);
+        return h;
+    }
+
+    private static long mix(long h, long v) {
+        return GameRandom.mix64(h * 31 + v);
+    }
+}
@@ -0,0 +1,155 @@
+package pong;
+
+/**
+ * Keeps the per-frame work (ticks since the last paint plus the paint itself)
+ * inside a frame-time budget by stepping the visual load between a few
+ * quality levels. The top level is the full look; each step down thins the
+ * star field, emits fewer particles, lowers the particle budget, spawns fewer
+ * shooting stars and eventually turns antialiasing off. Below the lowest
+ * level it renders at a lower internal resolution that is upscaled to the
+ * panel (dynamic resolution), down to {@link #MIN_RENDER_SCALE}; on the way
+ * back up the resolution is restored before the effects.
+ *
+ * Work time is smoothed with an EMA. Going down needs a short run of frames
+ * over {@link #DOWN_SHARE} of the budget, going up a long run under
+ * {@link #UP_SHARE}, and after every change the level is held for a while, so
+ * the level does not flap around the budget. A pinned level never changes,
+ * for benchmarking, and a fixed render scale replaces the dynamic one.
+ *
+ * Not thread-safe. It belongs to the thread that renders (the EDT, or the
+ * render thread on the active path), which drives it from drawFrame; the
+ * simulation and the JFR periodic thread only see the volatile copies of
+ * its settings that GamePanel publishes when the level changes.
+ */
+final class QualityGovernor {
+
+    static final int LOWEST = 0;
+    static final int HIGHEST = 3;
+
+    // per level, LOWEST..HIGHEST
+    private static final int[] STARS = { 60, 120, 180, 260 };
+    private static final int[] FIRE_PER_SECOND = { 60, 120, 180, 240 };
+    private static final int[] EXPLOSION = { 20, 35, 50, 70 };
+    private static final int[] PARTICLE_BUDGET = { 512, 1024, 2048, FireTrail.DEFAULT_CAPACITY };
+    private static final double[] SHOOTING_RATE = { 0, 0.5, 0.75, 1.0 };
+    private static final boolean[] ANTIALIAS = { false, false, true, true };
+
+    // rungs below LOWEST trade resolution: each one renders SCALE_STEP smaller
+    static final double MIN_RENDER_SCALE = 0.5;
+    private static final double SCALE_STEP = 0.125;
+    private static final int LOWEST_RUNG = LOWEST - (int) Math.round((1 - MIN_RENDER_SCALE) / SCALE_STEP);
+
+    static final double DOWN_SHARE = 0.85;
+    static final double UP_SHARE = 0.45;
+    private static final int DOWN_FRAMES = 10;
+    private static final int UP_FRAMES = 180;
+    private static final int HOLD_FRAMES = 60;
+    private static final double SMOOTH = 0.1; // EMA weight of a new sample
+
+    private long budgetNanos;
+
+    private int rung = HIGHEST;
+    private boolean pinned = false;
+    private double fixedScale = 0; // 0 = dynamic
+
+    private long tickNanos;
+    private double avgNanos = -1;
+    private int over, under;
+    private int hold;
+
+    QualityGovernor(long budgetNanos) {
+        if (budgetNanos <= 0) throw new IllegalArgumentException("budget must be > 0: " + budgetNanos);
+        this.budgetNanos = budgetNanos;
+    }
+
+    long budgetNanos() { return budgetNanos; }
+
+    /** New budget, e.g. after the display's refresh rate changed. */
+    void setBudgetNanos(long budgetNanos) {
+        if (budgetNanos <= 0) throw new IllegalArgumentException("budget must be > 0: " + budgetNanos);
+        this.budgetNanos = budgetNanos;
+        over = under = 0;
+    }
+
+    int level() { return Math.max(LOWEST, rung); }
+
+    /** Internal render resolution relative to the panel, MIN_RENDER_SCALE..1. */
+    double renderScale() {
+        if (fixedScale > 0) return fixedScale;
+        return rung >= LOWEST ? 1 : 1 + (rung - LOWEST) * SCALE_STEP;
+    }
+
+    boolean isPinned() { return pinned; }
+
+    /** Smoothed work per frame in nanoseconds, or -1 before the first frame. */
+    double averageNanos() { return avgNanos; }
+
+    /** Fixes the level until {@link #unpin()}. */
+    void pin(int level) {
+        if (level < LOWEST || level > HIGHEST) throw new IllegalArgumentException("quality level out of range: " + level);
+        rung = level;
+        pinned = true;
+    }
+
+    /** Renders at this scale (MIN_RENDER_SCALE..1) instead of adapting the resolution. */
+    void fixRenderScale(double scale) {
+        if (scale < MIN_RENDER_SCALE || scale > 1) throw new IllegalArgumentException("render scale out of range: " + scale);
+        fixedScale = scale;
+        rung = Math.max(LOWEST, rung);
+    }
+
+    void unpin() {
+        pinned = false;
+        over = under = 0;
+        hold = HOLD_FRAMES;
+    }
+
+    /** Adds simulation work done on the loop thread; counted with the next frame. */
+    void addTickNanos(long nanos) {
+        tickNanos += nanos;
+    }
+
+    /** Feeds one painted frame; returns true if the level or render scale changed. */
+    boolean frame(long paintNanos) {
+        long work = paintNanos + tickNanos;
+        tickNanos = 0;
+        avgNanos = avgNanos < 0 ? work : avgNanos + (work - avgNanos) * SMOOTH;
+        if (pinned) return false;
+
+        if (hold > 0) {
+            hold--;
+            return false;
+        }
+
+        over = avgNanos > budgetNanos * DOWN_SHARE ? over + 1 : 0;
+        under = avgNanos < budgetNanos * UP_SHARE ? under + 1 : 0;
+
+        int lowest = fixedScale > 0 ? LOWEST : LOWEST_RUNG;
+        if (over >= DOWN_FRAMES && rung > lowest) return change(rung - 1);
+        if (under >= UP_FRAMES && rung < HIGHEST) return change(rung + 1);
+        return false;
+    }
+
+    private boolean change(int to) {
+        rung = to;
+        over = under = 0;
+        hold = HOLD_FRAMES;
+        // the old average describes the old load
+        avgNanos = -1;
+        return true;
+    }
+
+    int stars() { return STARS[level()]; }
+
+    /** Fire particles behind the ball per second of play. */
+    int fireRate() { return FIRE_PER_SECOND[level()]; }
+
+    int explosionParticles() { return EXPLOSION[level()]; }
+
+    int particleBudget() { return PARTICLE_BUDGET[level()]; }
+
+    /** Shooting-star spawn rate relative to the full look; 0 = none. */
+    double shootingRate() { return SHOOTING_RATE[level()]; }
+
+    boolean antialias() { return ANTIALIAS[level()]; }
+}
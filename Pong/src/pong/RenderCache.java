@@ -0,0 +1,257 @@
+package pong;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Pre-rendered HUD and paddle graphics. Each image is keyed by the inputs it
+ * was drawn from (score pair, paddle size, glow/edge alpha bucket) and only
+ * re-rendered, lazily, when those change; a frame just blits them.
+ *
+ * Like {@link ParticleSprites}, everything is rendered for the target's
+ * GraphicsConfiguration and thrown away when that changes.
+ */
+final class RenderCache {
+
+    // glow opacity is quantized to this many levels
+    static final int GLOW_LEVELS = 16;
+    private static final int GLOW_EXTRA = 10;
+    private static final int GLOW_PAD = 10;
+
+    // edge damage gradient: width and peak alpha (0..255), one image per alpha value
+    static final int EDGE_GRADIENT_WIDTH = 90;
+    static final int EDGE_MAX_ALPHA = 45;
+
+    // score panel
+    private static final int PANEL_Y = 26;
+    private static final int PANEL_H = 68;
+    private static final int TEXT_GAP = 28;
+    private final Font scoreFont = new Font("SansSerif", Font.BOLD, 56);
+
+    // room for antialiased outlines that spill past the shape bounds
+    private static final int AA = 1;
+
+    private GraphicsConfiguration gc;
+
+    private BufferedImage score;
+    private int score1 = -1, score2 = -1;
+    private FontMetrics scoreMetrics;
+
+    private final BufferedImage[] paddle = new BufferedImage[2];
+    private final BufferedImage[] glow = new BufferedImage[GLOW_LEVELS + 1];
+    private int paddleW = -1, paddleH = -1;
+
+    private final BufferedImage[][] edge = new BufferedImage[2][EDGE_MAX_ALPHA + 1];
+
+    private BufferedImage ball;
+    private int ballSize = -1;
+
+    /** Drops everything if the target's GraphicsConfiguration changed. */
+    void validate(Graphics2D g2) {
+        GraphicsConfiguration target = g2.getDeviceConfiguration();
+        if (target == gc) return;
+
+        gc = target;
+        score = null;
+        score1 = score2 = -1;
+        scoreMetrics = null;
+        paddleW = paddleH = -1;
+        Arrays.fill(paddle, null);
+        Arrays.fill(glow, null);
+        for (BufferedImage[] side : edge) Arrays.fill(side, null);
+        ball = null;
+        ballSize = -1;
+    }
+
+    /** Score panel centered on centerX. */
+    void drawScore(Graphics2D g2, int centerX, int s1, int s2) {
+        if (score == null || s1 != score1 || s2 != score2) {
+            score = renderScore(String.valueOf(s1), String.valueOf(s2));
+            score1 = s1;
+            score2 = s2;
+        }
+        g2.drawImage(score, centerX - score.getWidth() / 2, PANEL_Y - AA, null);
+    }
+
+    void drawPaddle(Graphics2D g2, int x, int y, int w, int h, boolean isLeft) {
+        sizePaddles(w, h);
+        int side = isLeft ? 0 : 1;
+        if (paddle[side] == null) paddle[side] = renderPaddle(w, h, isLeft);
+        g2.drawImage(paddle[side], x - AA, y - AA, null);
+    }
+
+    /** Glow around a paddle; a is the remaining glow 0..1. */
+    void drawPaddleGlow(Graphics2D g2, int x, int y, int w, int h, double a) {
+        int level = (int) Math.ceil(a * GLOW_LEVELS);
+        if (level <= 0) return;
+        if (level > GLOW_LEVELS) level = GLOW_LEVELS;
+
+        sizePaddles(w, h);
+        if (glow[level] == null) glow[level] = renderGlow(w, h, (float) level / GLOW_LEVELS);
+        int off = GLOW_EXTRA + GLOW_PAD + AA;
+        g2.drawImage(glow[level], x - off, y - off, null);
+    }
+
+    /** Red damage gradient along the left or right edge; a is the flash strength 0..1. */
+    void drawEdge(Graphics2D g2, boolean left, int panelW, int panelH, double a) {
+        int alpha = (int) Math.round(EDGE_MAX_ALPHA * a);
+        if (alpha <= 0) return;
+        if (alpha > EDGE_MAX_ALPHA) alpha = EDGE_MAX_ALPHA;
+
+        int side = left ? 0 : 1;
+        BufferedImage img = edge[side][alpha];
+        if (img == null) img = edge[side][alpha] = renderEdge(left, alpha);
+
+        // the gradient is horizontal only: a one pixel tall strip stretched to the panel height
+        int x = left ? 0 : panelW - EDGE_GRADIENT_WIDTH;
+        g2.drawImage(img, x, 0, EDGE_GRADIENT_WIDTH, panelH, null);
+    }
+
+    /** Extra ball of multi-ball mode, (x, y) its top-left corner. */
+    void drawBall(Graphics2D g2, int x, int y, int size) {
+        if (ball == null || size != ballSize) {
+            ball = renderBall(size);
+            ballSize = size;
+        }
+        g2.drawImage(ball, x - AA, y - AA, null);
+    }
+
+    // paddle and glow images depend on the paddle size only
+    private void sizePaddles(int w, int h) {
+        if (w == paddleW && h == paddleH) return;
+        paddleW = w;
+        paddleH = h;
+        Arrays.fill(paddle, null);
+        Arrays.fill(glow, null);
+    }
+
+    // with many balls the score changes every few frames: the metrics are kept, and the image while its width holds
+    private BufferedImage renderScore(String s1, String s2) {
+        // measure first, the panel is sized to the text
+        if (scoreMetrics == null) {
+            Graphics2D m = image(1, 1).createGraphics();
+            m.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            scoreMetrics = m.getFontMetrics(scoreFont);
+            m.dispose();
+        }
+        FontMetrics fm = scoreMetrics;
+        int w1 = fm.stringWidth(s1);
+        int w2 = fm.stringWidth(s2);
+        int wc = fm.stringWidth(":");
+
+        int totalTextWidth = w1 + TEXT_GAP + wc + TEXT_GAP + w2;
+        int panelW = totalTextWidth + 44;
+
+        BufferedImage img = score;
+        if (img == null || img.getWidth() != panelW + 2 * AA) img = image(panelW + 2 * AA, PANEL_H + 2 * AA);
+        Graphics2D g = begin(img);
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, img.getWidth(), img.getHeight());
+        g.translate(AA, AA);
+
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.55f));
+        g.setColor(Color.BLACK);
+        g.fillRoundRect(0, 0, panelW, PANEL_H, 22, 22);
+
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.22f));
+        g.setColor(Color.WHITE);
+        g.drawRoundRect(0, 0, panelW, PANEL_H, 22, 22);
+        g.setComposite(AlphaComposite.SrcOver);
+
+        g.setFont(scoreFont);
+        int startX = (panelW - totalTextWidth) / 2;
+        int textY = 54;
+
+        g.setColor(new Color(0, 0, 0, 170));
+        g.drawString(s1, startX + 2, textY + 2);
+        g.drawString(":", startX + w1 + TEXT_GAP + 2, textY + 2);
+        g.drawString(s2, startX + w1 + TEXT_GAP + wc + TEXT_GAP + 2, textY + 2);
+
+        g.setColor(Color.WHITE);
+        g.drawString(s1, startX, textY);
+        g.drawString(":", startX + w1 + TEXT_GAP, textY);
+        g.drawString(s2, startX + w1 + TEXT_GAP + wc + TEXT_GAP, textY);
+
+        g.dispose();
+        return img;
+    }
+
+    private BufferedImage renderPaddle(int w, int h, boolean isLeft) {
+        BufferedImage img = image(w + 2 * AA, h + 2 * AA);
+        Graphics2D g = begin(img);
+        g.translate(AA, AA);
+
+        int arc = Math.min(24, h / 4);
+        g.setPaint(new GradientPaint(
+                0, 0, new Color(245, 245, 245, 235),
+                0, h, new Color(180, 180, 180, 235)
+        ));
+        g.fillRoundRect(0, 0, w, h, arc, arc);
+
+        g.setColor(new Color(255, 255, 255, 70));
+        g.drawRoundRect(0, 0, w, h, arc, arc);
+
+        g.setColor(new Color(255, 255, 255, 90));
+        if (isLeft) g.drawLine(2, 8, 2, h - 8);
+        else g.drawLine(w - 3, 8, w - 3, h - 8);
+
+        g.setColor(new Color(0, 0, 0, 45));
+        if (isLeft) g.drawLine(w - 3, 8, w - 3, h - 8);
+        else g.drawLine(2, 8, 2, h - 8);
+
+        g.dispose();
+        return img;
+    }
+
+    private BufferedImage renderGlow(int w, int h, float a) {
+        int off = GLOW_EXTRA + GLOW_PAD;
+        BufferedImage img = image(w + 2 * (off + AA), h + 2 * (off + AA));
+        Graphics2D g = begin(img);
+        g.translate(off + AA, off + AA);
+
+        g.setColor(new Color(1.0f, 0.8f, 0.2f, 1.0f));
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.55f * a));
+        g.fillRoundRect(-GLOW_EXTRA, -GLOW_EXTRA, w + GLOW_EXTRA * 2, h + GLOW_EXTRA * 2, 22, 22);
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.30f * a));
+        g.fillRoundRect(-off, -off, w + off * 2, h + off * 2, 26, 26);
+
+        g.dispose();
+        return img;
+    }
+
+    private BufferedImage renderBall(int size) {
+        BufferedImage img = image(size + 2 * AA, size + 2 * AA);
+        Graphics2D g = begin(img);
+        g.setColor(Color.RED);
+        g.fillOval(AA, AA, size, size);
+        g.dispose();
+        return img;
+    }
+
+    private BufferedImage renderEdge(boolean left, int alpha) {
+        BufferedImage img = image(EDGE_GRADIENT_WIDTH, 1);
+        Graphics2D g = begin(img);
+        float solid = left ? 0 : EDGE_GRADIENT_WIDTH;
+        g.setPaint(new GradientPaint(
+                solid, 0, new Color(255, 60, 60, alpha),
+                EDGE_GRADIENT_WIDTH - solid, 0, new Color(255, 60, 60, 0)
+        ));
+        g.fillRect(0, 0, EDGE_GRADIENT_WIDTH, 1);
+        g.dispose();
+        return img;
+    }
+
+    private BufferedImage image(int w, int h) {
+        return gc != null
+                ? gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    private static Graphics2D begin(BufferedImage img) {
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        return g;
+    }
+}
@@ -0,0 +1,344 @@
+package pong;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Software renderer for the effect layers (stars, shooting stars,
+ * particles). Primitives are collected between {@link #begin} and
+ * {@link #finish}, binned into 64x64 screen tiles in submission order, and
+ * then every tile is cleared and rasterized on its own ForkJoin task
+ * straight into the int[] of a TYPE_INT_ARGB_PRE image. The caller
+ * composites the result once.
+ *
+ * Two primitives: antialiased discs (optionally with a soft halo) and
+ * antialiased round-capped lines with an alpha gradient along their length.
+ * Each can be blended OVER (normal alpha) or ADD (saturating).
+ */
+public final class SoftwareRasterizer {
+
+    public static final int BLEND_OVER = 0;
+    public static final int BLEND_ADD = 1;
+
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE = 1 << TILE_SHIFT;
+
+    private static final byte DISC = 0;
+    private static final byte LINE = 1;
+
+    // primitives; disc: cx, cy, radius, halo; line: x1, y1, x2, y2, half width
+    private int count = 0;
+    private byte[] kind = new byte[1024];
+    private byte[] blend = new byte[1024];
+    private float[] p0 = new float[1024], p1 = new float[1024], p2 = new float[1024];
+    private float[] p3 = new float[1024], p4 = new float[1024];
+    private int[] c0 = new int[1024], c1 = new int[1024]; // premultiplied ARGB (line: head, tail)
+
+    // per-tile primitive indices, in submission order
+    private int tilesX, tilesY;
+    private int[][] bins = new int[0][];
+    private int[] binCount = new int[0];
+
+    private final ForkJoinPool pool;
+    private BufferedImage image;
+    private int[] pixels;
+    private int width, height;
+
+    // maps submitted coordinates to pixels: p * scale + translate
+    private double scale = 1, tx = 0, ty = 0;
+
+    public SoftwareRasterizer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SoftwareRasterizer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** Starts a frame of the given size; reuses the target image when the size is unchanged. */
+    public void begin(int w, int h) {
+        w = Math.max(1, w);
+        h = Math.max(1, h);
+        if (image == null || w != width || h != height) {
+            width = w;
+            height = h;
+            image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+            tilesX = (w + TILE - 1) >> TILE_SHIFT;
+            tilesY = (h + TILE - 1) >> TILE_SHIFT;
+            bins = new int[tilesX * tilesY][];
+            for (int t = 0; t < bins.length; t++) bins[t] = new int[64];
+            binCount = new int[bins.length];
+        }
+        count = 0;
+        Arrays.fill(binCount, 0);
+        setTransform(1, 0, 0);
+    }
+
+    /** Scale and offset applied to the primitives submitted after this call, until the next {@link #begin}. */
+    public void setTransform(double scale, double tx, double ty) {
+        if (scale <= 0) throw new IllegalArgumentException("scale must be > 0: " + scale);
+        this.scale = scale;
+        this.tx = tx;
+        this.ty = ty;
+    }
+
+    public int width() { return width; }
+
+    public int height() { return height; }
+
+    /**
+     * @param halo width of a soft glow around the disc (0 = plain AA disc)
+     * @param rgb color, alpha ignored
+     */
+    public void disc(double cx, double cy, double radius, double halo, int rgb, double alpha, int blendMode) {
+        if (radius <= 0 || alpha <= 0) return;
+        cx = cx * scale + tx;
+        cy = cy * scale + ty;
+        radius *= scale;
+        halo *= scale;
+        double reach = radius + halo + 1;
+
+        int i = add(DISC, blendMode, cx - reach, cy - reach, cx + reach, cy + reach);
+        if (i < 0) return;
+        p0[i] = (float) cx;
+        p1[i] = (float) cy;
+        p2[i] = (float) radius;
+        p3[i] = (float) halo;
+        c0[i] = premultiply(rgb, alpha);
+    }
+
+    /** Line from head (x1, y1) to tail (x2, y2), alpha fading from alphaHead to alphaTail. */
+    public void line(double x1, double y1, double x2, double y2, double lineWidth,
+                     int rgb, double alphaHead, double alphaTail, int blendMode) {
+        if (alphaHead <= 0 && alphaTail <= 0) return;
+        x1 = x1 * scale + tx;
+        y1 = y1 * scale + ty;
+        x2 = x2 * scale + tx;
+        y2 = y2 * scale + ty;
+        lineWidth *= scale;
+        double reach = lineWidth / 2 + 1;
+
+        int i = add(LINE, blendMode,
+                Math.min(x1, x2) - reach, Math.min(y1, y2) - reach,
+                Math.max(x1, x2) + reach, Math.max(y1, y2) + reach);
+        if (i < 0) return;
+        p0[i] = (float) x1;
+        p1[i] = (float) y1;
+        p2[i] = (float) x2;
+        p3[i] = (float) y2;
+        p4[i] = (float) (lineWidth / 2);
+        c0[i] = premultiply(rgb, alphaHead);
+        c1[i] = premultiply(rgb, alphaTail);
+    }
+
+    /** Rasterizes all tiles in parallel and returns the finished layer. */
+    public BufferedImage finish() {
+        pool.invoke(new Tiles(0, bins.length));
+        return image;
+    }
+
+    private int add(byte k, int blendMode, double minX, double minY, double maxX, double maxY) {
+        int tx0 = Math.max(0, (int) Math.floor(minX) >> TILE_SHIFT);
+        int ty0 = Math.max(0, (int) Math.floor(minY) >> TILE_SHIFT);
+        int tx1 = Math.min(tilesX - 1, (int) Math.floor(maxX) >> TILE_SHIFT);
+        int ty1 = Math.min(tilesY - 1, (int) Math.floor(maxY) >> TILE_SHIFT);
+        if (maxX < 0 || maxY < 0 || tx0 > tx1 || ty0 > ty1) return -1; // off screen
+
+        if (count == kind.length) grow();
+        int i = count++;
+        kind[i] = k;
+        blend[i] = (byte) blendMode;
+
+        for (int ty = ty0; ty <= ty1; ty++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                int t = ty * tilesX + tx;
+                int n = binCount[t];
+                if (n == bins[t].length) bins[t] = Arrays.copyOf(bins[t], n * 2);
+                bins[t][n] = i;
+                binCount[t] = n + 1;
+            }
+        }
+        return i;
+    }
+
+    private void grow() {
+        int n = kind.length * 2;
+        kind = Arrays.copyOf(kind, n);
+        blend = Arrays.copyOf(blend, n);
+        p0 = Arrays.copyOf(p0, n);
+        p1 = Arrays.copyOf(p1, n);
+        p2 = Arrays.copyOf(p2, n);
+        p3 = Arrays.copyOf(p3, n);
+        p4 = Arrays.copyOf(p4, n);
+        c0 = Arrays.copyOf(c0, n);
+        c1 = Arrays.copyOf(c1, n);
+    }
+
+    void rasterTile(int t) {
+        int x0 = (t % tilesX) << TILE_SHIFT;
+        int y0 = (t / tilesX) << TILE_SHIFT;
+        int x1 = Math.min(width, x0 + TILE);
+        int y1 = Math.min(height, y0 + TILE);
+
+        for (int y = y0; y < y1; y++) Arrays.fill(pixels, y * width + x0, y * width + x1, 0);
+
+        int[] bin = bins[t];
+        int n = binCount[t];
+        for (int k = 0; k < n; k++) {
+            int i = bin[k];
+            if (kind[i] == DISC) rasterDisc(i, x0, y0, x1, y1);
+            else rasterLine(i, x0, y0, x1, y1);
+        }
+    }
+
+    private void rasterDisc(int i, int tx0, int ty0, int tx1, int ty1) {
+        float cx = p0[i], cy = p1[i], r = p2[i], halo = p3[i];
+        float outer = r + halo + 0.5f;
+        float inner = Math.max(0f, r - 0.5f);
+        float outer2 = outer * outer;
+        float inner2 = inner * inner;
+
+        int ya = Math.max(ty0, (int) Math.floor(cy - outer));
+        int yb = Math.min(ty1, (int) Math.ceil(cy + outer) + 1);
+
+        int color = c0[i];
+        boolean add = blend[i] == BLEND_ADD;
+
+        for (int y = ya; y < yb; y++) {
+            float dy = y + 0.5f - cy;
+            float dy2 = dy * dy;
+            if (dy2 >= outer2) continue;
+
+            // horizontal extent of the outer circle and of the fully covered core on this row
+            float ox = (float) Math.sqrt(outer2 - dy2);
+            int xa = Math.max(tx0, (int) Math.floor(cx - ox));
+            int xb = Math.min(tx1, (int) Math.ceil(cx + ox));
+            int ca = xb, cb = xb;
+            if (dy2 < inner2) {
+                float ix = (float) Math.sqrt(inner2 - dy2);
+                ca = Math.max(xa, (int) Math.ceil(cx - ix - 0.5f));
+                cb = Math.min(xb, (int) Math.floor(cx + ix - 0.5f) + 1);
+                if (cb < ca) ca = cb = xb;
+            }
+
+            int row = y * width;
+            for (int x = xa; x < ca; x++) edge(row + x, x + 0.5f - cx, dy2, r, halo, color, add);
+            for (int x = ca; x < cb; x++) plot(row + x, color, 256, add);
+            for (int x = Math.max(ca, cb); x < xb; x++) edge(row + x, x + 0.5f - cx, dy2, r, halo, color, add);
+        }
+    }
+
+    // Disc pixel outside the fully covered core: AA rim, then the halo falloff.
+    private void edge(int idx, float dx, float dy2, float r, float halo, int color, boolean add) {
+        float d = (float) Math.sqrt(dx * dx + dy2);
+        float cov = Math.min(1f, Math.max(0f, r + 0.5f - d));
+        if (halo > 0 && d > r) cov = Math.max(cov, 0.45f * (1f - (d - r) / halo));
+        if (cov > 0) plot(idx, color, (int) (cov * 256), add);
+    }
+
+    private void rasterLine(int i, int tx0, int ty0, int tx1, int ty1) {
+        float ax = p0[i], ay = p1[i], bx = p2[i], by = p3[i], hw = p4[i];
+        float ex = bx - ax, ey = by - ay;
+        float len2 = ex * ex + ey * ey;
+        float inv = len2 > 1e-6f ? 1f / len2 : 0f;
+        float reach = hw + 0.5f;
+        float reach2 = reach * reach;
+
+        int xa = Math.max(tx0, (int) Math.floor(Math.min(ax, bx) - reach));
+        int ya = Math.max(ty0, (int) Math.floor(Math.min(ay, by) - reach));
+        int xb = Math.min(tx1, (int) Math.ceil(Math.max(ax, bx) + reach) + 1);
+        int yb = Math.min(ty1, (int) Math.ceil(Math.max(ay, by) + reach) + 1);
+
+        int head = c0[i], tail = c1[i];
+        boolean add = blend[i] == BLEND_ADD;
+
+        for (int y = ya; y < yb; y++) {
+            float py = y + 0.5f - ay;
+            int row = y * width;
+            for (int x = xa; x < xb; x++) {
+                float px = x + 0.5f - ax;
+                float t = (px * ex + py * ey) * inv;
+                if (t < 0) t = 0;
+                else if (t > 1) t = 1;
+
+                float qx = px - ex * t, qy = py - ey * t;
+                float d2 = qx * qx + qy * qy;
+                if (d2 >= reach2) continue;
+
+                float cov = Math.min(1f, reach - (float) Math.sqrt(d2));
+                plot(row + x, lerpColor(head, tail, t), (int) (cov * 256), add);
+            }
+        }
+    }
+
+    // Blends premultiplied color at coverage c (0..256) into a pixel, two channels per multiply.
+    private void plot(int idx, int color, int c, boolean add) {
+        int srb = ((color & 0xFF00FF) * c >>> 8) & 0xFF00FF;
+        int sag = (((color >>> 8) & 0xFF00FF) * c >>> 8) & 0xFF00FF;
+        if (sag >>> 16 == 0) return; // premultiplied: no alpha, nothing to add either
+
+        int d = pixels[idx];
+        int rb, ag;
+        if (add) {
+            rb = (d & 0xFF00FF) + srb;
+            ag = ((d >>> 8) & 0xFF00FF) + sag;
+            // saturate each 9-bit lane
+            rb = (rb | (0x1000100 - ((rb >>> 8) & 0x10001))) & 0xFF00FF;
+            ag = (ag | (0x1000100 - ((ag >>> 8) & 0x10001))) & 0xFF00FF;
+        } else {
+            int keep = 255 - (sag >>> 16);
+            rb = (d & 0xFF00FF) * keep + 0x800080;
+            rb = ((rb + ((rb >>> 8) & 0xFF00FF)) >>> 8) & 0xFF00FF;
+            ag = ((d >>> 8) & 0xFF00FF) * keep + 0x800080;
+            ag = ((ag + ((ag >>> 8) & 0xFF00FF)) >>> 8) & 0xFF00FF;
+            rb += srb;
+            ag += sag;
+        }
+        pixels[idx] = (ag << 8) | rb;
+    }
+
+    private static int lerpColor(int a, int b, float t) {
+        if (a == b) return a;
+        int w = (int) (t * 256);
+        int iw = 256 - w;
+        int ag = (((a >>> 24) & 0xFF) * iw + ((b >>> 24) & 0xFF) * w) >> 8;
+        int rr = (((a >> 16) & 0xFF) * iw + ((b >> 16) & 0xFF) * w) >> 8;
+        int gg = (((a >> 8) & 0xFF) * iw + ((b >> 8) & 0xFF) * w) >> 8;
+        int bb = ((a & 0xFF) * iw + (b & 0xFF) * w) >> 8;
+        return (ag << 24) | (rr << 16) | (gg << 8) | bb;
+    }
+
+    private static int premultiply(int rgb, double alpha) {
+        int a = (int) Math.round(Math.max(0, Math.min(1, alpha)) * 255);
+        int r = ((rgb >> 16) & 0xFF) * a / 255;
+        int g = ((rgb >> 8) & 0xFF) * a / 255;
+        int b = (rgb & 0xFF) * a / 255;
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    private final class Tiles extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        Tiles(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 4) {
+                for (int t = from; t < to; t++) rasterTile(t);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Tiles(from, mid), new Tiles(mid, to));
+        }
+    }
+}
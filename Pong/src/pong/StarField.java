@@ -0,0 +1,340 @@
+package pong;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StarField {
+
+    // layered mode: stars are grouped into bands of similar angular speed, each band
+    // is rendered once into an image and then blitted rotated every frame
+    public static final int DEFAULT_BANDS = 4;
+
+    // Unless the layer images are accelerated, the layers are only used from this many stars on. Per-star drawing
+    // grows with the count (about 5 us a star) while the band blits cost about the same at any count (5-7 ms);
+    // StarFieldBench on the software pipeline at 1280x720 puts the crossover between 1000 and 1500 stars.
+    public static final int LAYERED_MIN_STARS = 1500;
+
+    // frames of blitting after which the layer images should have been cached on the device
+    private static final int ACCEL_PROBE_FRAMES = 5;
+
+    private static final double MIN_ANG_SPEED = 0.06;
+    private static final double MAX_ANG_SPEED = 0.16;
+
+    // per-band twinkle (alpha modulation of the whole layer)
+    private static final double BAND_TWINKLE = 0.12;
+    private static final int ALPHA_STEPS = 32;
+    private static final AlphaComposite[] BAND_ALPHA = new AlphaComposite[ALPHA_STEPS + 1];
+    static {
+        for (int i = 0; i <= ALPHA_STEPS; i++) {
+            BAND_ALPHA[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, i / (float) ALPHA_STEPS);
+        }
+    }
+
+    // room for streaks that stick out of the visible circle
+    private static final int LAYER_MARGIN = 48;
+
+    // layer images are sized in these steps, so a window drag reuses them instead of allocating every frame
+    private static final int LAYER_STEP = 128;
+
+    private final List<OrbitStar> stars = new ArrayList<>();
+    private final int targetCount;
+    private final GameRandom rnd;
+
+    // only the first visibleCount stars are shown (generation order is random, so any prefix is a fair sample)
+    private int visibleCount;
+
+    private int lastW = -1;
+    private int lastH = -1;
+
+    // unless setLayered was called, the mode follows the device and the star count
+    private boolean autoMode = true;
+    private boolean layered = false;
+    private GraphicsConfiguration modeGc;
+    private boolean modeAccelerated;
+    private int layerFrames;
+    private final int bandCount;
+    private final double[] bandSpeed;
+    private final double[] bandAngle;
+    private final double[] bandTwPhase;
+    private final double[] bandTwSpeed;
+    private final BufferedImage[] bandImage;
+    private int[] bandOf = new int[0];
+    private int bandedCount = 0;
+    private boolean layersDirty = true;
+    private GraphicsConfiguration layersGc;
+    private final AffineTransform xf = new AffineTransform();
+    private final StreakPaint streak = new StreakPaint();
+
+    public StarField(int targetCount) {
+        this(targetCount, new GameRandom());
+    }
+
+    public StarField(int targetCount, GameRandom rnd) {
+        this(targetCount, DEFAULT_BANDS, rnd);
+    }
+
+    public StarField(int targetCount, int bands, GameRandom rnd) {
+        this.targetCount = Math.max(0, targetCount);
+        this.visibleCount = this.targetCount;
+        this.rnd = rnd;
+        this.bandCount = Math.max(1, bands);
+
+        bandSpeed = new double[bandCount];
+        bandAngle = new double[bandCount];
+        bandTwPhase = new double[bandCount];
+        bandTwSpeed = new double[bandCount];
+        bandImage = new BufferedImage[bandCount];
+
+        for (int b = 0; b < bandCount; b++) {
+            bandTwPhase[b] = b * 2.1;
+            bandTwSpeed[b] = 1.5 + 0.7 * b;
+        }
+    }
+
+    /** Stars currently shown. */
+    public int size() { return Math.min(stars.size(), visibleCount); }
+
+    public int targetCount() { return targetCount; }
+
+    /** Shows only the first n stars (clamped to the target count); the rest keep their place. */
+    public void setVisibleCount(int n) {
+        n = Math.max(0, Math.min(targetCount, n));
+        if (n == visibleCount) return;
+        visibleCount = n;
+        layersDirty = true;
+    }
+
+    public boolean isLayered() { return layered; }
+
+    /**
+     * Fixes the mode: cached rotating layers, or every star drawn each frame.
+     * Layers rotate rigidly, so their stars keep the ellipse they were drawn
+     * with instead of following their own orbits. By default the field picks
+     * layers only where they are the faster path: when the layer images are
+     * accelerated, or from {@link #LAYERED_MIN_STARS} stars on.
+     */
+    public void setLayered(boolean layered) {
+        autoMode = false;
+        setMode(layered);
+    }
+
+    private void setMode(boolean layered) {
+        if (this.layered == layered) return;
+
+        if (!layered) foldBandAngles();
+        this.layered = layered;
+        layersDirty = true;
+    }
+
+    public void update(double dt, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+
+        // on resize, move the stars to the same relative orbits (keeps distribution correct, allocates nothing)
+        if (w != lastW || h != lastH) {
+            GameEvents.StarFieldResize e = new GameEvents.StarFieldResize();
+            if (e.shouldCommit()) {
+                e.oldWidth = lastW;
+                e.oldHeight = lastH;
+                e.width = w;
+                e.height = h;
+                e.stars = stars.size();
+                e.commit();
+            }
+            if (lastW > 0 && lastH > 0) {
+                double oldMaxR = OrbitStar.maxRadius(lastW, lastH);
+                double newMaxR = OrbitStar.maxRadius(w, h);
+                for (OrbitStar s : stars) s.reproject(oldMaxR, newMaxR);
+            }
+            lastW = w;
+            lastH = h;
+            layersDirty = true;
+        }
+
+        while (stars.size() < targetCount) {
+            stars.add(OrbitStar.random(w, h, rnd));
+            layersDirty = true;
+        }
+
+        if (layered) {
+            for (int b = 0; b < bandCount; b++) {
+                bandAngle[b] += bandSpeed[b] * dt;
+                bandTwPhase[b] += bandTwSpeed[b] * dt;
+            }
+            return;
+        }
+
+        for (OrbitStar s : stars) {
+            s.update(dt, w, h);
+        }
+    }
+
+    public void draw(Graphics2D g2) {
+        if (autoMode) chooseMode(g2.getDeviceConfiguration());
+        if (!layered) {
+            // stars as short streaks (like long exposure)
+            int n = size();
+            for (int i = 0; i < n; i++) {
+                stars.get(i).draw(g2, streak);
+            }
+            return;
+        }
+
+        if (lastW <= 0 || lastH <= 0) return;
+        if (layersDirty || layersGc != g2.getDeviceConfiguration()) buildLayers(g2.getDeviceConfiguration());
+
+        Composite oldC = g2.getComposite();
+        Object oldInterp = g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+
+        double cx = lastW / 2.0;
+        double cy = lastH / 2.0;
+
+        for (int b = 0; b < bandCount; b++) {
+            BufferedImage img = bandImage[b];
+            if (img == null) continue;
+
+            double tw = (Math.sin(bandTwPhase[b]) + 1.0) * 0.5;
+            double a = 1.0 - BAND_TWINKLE + BAND_TWINKLE * tw;
+            g2.setComposite(BAND_ALPHA[(int) Math.round(a * ALPHA_STEPS)]);
+
+            double half = img.getWidth() / 2.0;
+            xf.setToTranslation(cx, cy);
+            xf.rotate(bandAngle[b]);
+            xf.translate(-half, -half);
+            g2.drawImage(img, xf, null);
+        }
+
+        g2.setComposite(oldC);
+        if (oldInterp != null) g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldInterp);
+
+        // a screen that accelerates images may still not have cached these; then the blits run in software
+        if (autoMode && modeAccelerated && ++layerFrames == ACCEL_PROBE_FRAMES) {
+            for (BufferedImage img : bandImage) {
+                if (img != null && !img.getCapabilities(modeGc).isAccelerated()) modeAccelerated = false;
+            }
+        }
+    }
+
+    private void chooseMode(GraphicsConfiguration gc) {
+        if (gc != modeGc) {
+            modeGc = gc;
+            modeAccelerated = gc != null && gc.getImageCapabilities().isAccelerated();
+            layerFrames = 0;
+        }
+        setMode(modeAccelerated || size() >= LAYERED_MIN_STARS);
+    }
+
+    /** Emits every star for the software backend, at the same place the current mode draws it. */
+    public void raster(SoftwareRasterizer out) {
+        if (lastW <= 0 || lastH <= 0) return;
+        double cx = lastW / 2.0;
+        double cy = lastH / 2.0;
+
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            OrbitStar s = stars.get(i);
+            if (!layered) {
+                s.raster(out, s.cx, s.cy, s.angle, s.twinkledAlpha());
+                continue;
+            }
+
+            double angle = s.angle;
+            double a = s.meanAlpha();
+            if (i < bandedCount) {
+                int b = bandOf[i];
+                angle += bandAngle[b];
+                a *= 1.0 - BAND_TWINKLE + BAND_TWINKLE * (Math.sin(bandTwPhase[b]) + 1.0) * 0.5;
+            }
+            s.raster(out, cx, cy, angle, a);
+        }
+    }
+
+    // hands the accumulated band rotation back to the individual stars
+    private void foldBandAngles() {
+        for (int i = 0; i < bandedCount; i++) stars.get(i).angle += bandAngle[bandOf[i]];
+        for (int b = 0; b < bandCount; b++) bandAngle[b] = 0;
+        bandedCount = 0;
+    }
+
+    private void buildLayers(GraphicsConfiguration gc) {
+        GameEvents.StarLayers event = new GameEvents.StarLayers();
+        event.begin();
+        foldBandAngles();
+        layersDirty = false;
+        layersGc = gc;
+
+        int n = stars.size();
+        if (bandOf.length < n) bandOf = new int[n];
+
+        // a rigidly rotating layer only ever shows the circle around the center that covers the screen
+        double visibleR = Math.hypot(lastW, lastH) / 2.0;
+        int shown = size();
+
+        double[] sum = new double[bandCount];
+        int[] members = new int[bandCount];
+        for (int i = 0; i < n; i++) {
+            double t = (stars.get(i).angSpeed - MIN_ANG_SPEED) / (MAX_ANG_SPEED - MIN_ANG_SPEED);
+            int b = (int) (t * bandCount);
+            if (b < 0) b = 0;
+            if (b >= bandCount) b = bandCount - 1;
+            bandOf[i] = b;
+            sum[b] += stars.get(i).angSpeed;
+            members[b]++;
+        }
+
+        // each layer only needs to cover the annulus its own stars reach
+        double[] outerR = new double[bandCount];
+        for (int i = 0; i < shown; i++) {
+            OrbitStar s = stars.get(i);
+            if (s.r > visibleR + s.streakLen) continue; // never on screen
+            outerR[bandOf[i]] = Math.max(outerR[bandOf[i]], s.r * Math.max(1.0, s.ellipse));
+        }
+
+        Graphics2D[] gs = new Graphics2D[bandCount];
+        bandedCount = n;
+        int maxSide = 0;
+
+        for (int b = 0; b < bandCount; b++) {
+            bandSpeed[b] = members[b] > 0 ? sum[b] / members[b] : 0;
+
+            if (outerR[b] == 0) {
+                bandImage[b] = null;
+                continue;
+            }
+            int side = (int) Math.ceil(outerR[b] * 2) + LAYER_MARGIN * 2;
+            side = (side + LAYER_STEP - 1) / LAYER_STEP * LAYER_STEP;
+            maxSide = Math.max(maxSide, side);
+            if (bandImage[b] == null || bandImage[b].getWidth() != side) {
+                bandImage[b] = gc != null
+                        ? gc.createCompatibleImage(side, side, Transparency.TRANSLUCENT)
+                        : new BufferedImage(side, side, BufferedImage.TYPE_INT_ARGB_PRE);
+            }
+            gs[b] = bandImage[b].createGraphics();
+            gs[b].setComposite(AlphaComposite.Clear);
+            gs[b].fillRect(0, 0, side, side);
+            gs[b].setComposite(AlphaComposite.SrcOver);
+            gs[b].setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        }
+
+        for (int i = 0; i < shown; i++) {
+            OrbitStar s = stars.get(i);
+            if (s.r > visibleR + s.streakLen) continue; // never on screen
+            double half = bandImage[bandOf[i]].getWidth() / 2.0;
+            s.drawAt(gs[bandOf[i]], streak, half, half, s.angle, s.ellipse, s.meanAlpha());
+        }
+
+        for (Graphics2D g : gs) {
+            if (g != null) g.dispose();
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.stars = shown;
+            event.side = maxSide;
+            event.commit();
+        }
+    }
+}
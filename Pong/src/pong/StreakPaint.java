@@ -0,0 +1,111 @@
+package pong;
+
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.PaintContext;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+/**
+ * Linear gradient from a color at the head of a streak to transparent at its
+ * tail, like a two-stop GradientPaint, but set in place and drawn through one
+ * reused context and raster. GradientPaint makes a new context, and often new
+ * rasters, for every shape it fills: a few KB per star and frame. What is
+ * left is Java2D's own per-fill state, about 200 B a streak.
+ *
+ * Not thread-safe; set it right before each fill.
+ */
+final class StreakPaint implements Paint {
+
+    private static final ColorModel ARGB = ColorModel.getRGBdefault();
+
+    private double headX, headY, tailX, tailY;
+    private int rgb, alpha;
+
+    private final Context context = new Context();
+    private final Line2D.Double line = new Line2D.Double();
+
+    /** Head and tail in user space, color 0xRRGGBB at the head with alpha 0..255. */
+    void set(double headX, double headY, double tailX, double tailY, int rgb, int alpha) {
+        this.headX = headX;
+        this.headY = headY;
+        this.tailX = tailX;
+        this.tailY = tailY;
+        this.rgb = rgb & 0xFFFFFF;
+        this.alpha = Math.max(0, Math.min(255, alpha));
+    }
+
+    /**
+     * Draws a streak with g2's stroke, fading from the head to the tail at
+     * whole-pixel ends like drawLine, and leaves this as g2's paint.
+     */
+    void draw(Graphics2D g2, double headX, double headY, double tailX, double tailY, int rgb, int alpha) {
+        set(headX, headY, tailX, tailY, rgb, alpha);
+        g2.setPaint(this);
+        // drawLine would allocate the same line every call
+        line.setLine((int) headX, (int) headY, (int) tailX, (int) tailY);
+        g2.draw(line);
+    }
+
+    @Override
+    public PaintContext createContext(ColorModel cm, Rectangle deviceBounds, Rectangle2D userBounds,
+                                      AffineTransform xform, RenderingHints hints) {
+        Context c = context;
+        c.hx = xform.getScaleX() * headX + xform.getShearX() * headY + xform.getTranslateX();
+        c.hy = xform.getShearY() * headX + xform.getScaleY() * headY + xform.getTranslateY();
+        double dx = xform.getScaleX() * (tailX - headX) + xform.getShearX() * (tailY - headY);
+        double dy = xform.getShearY() * (tailX - headX) + xform.getScaleY() * (tailY - headY);
+        double len2 = dx * dx + dy * dy;
+        // t = 0 at the head, 1 at the tail, along the streak
+        c.stepX = len2 > 1e-9 ? dx / len2 : 0;
+        c.stepY = len2 > 1e-9 ? dy / len2 : 0;
+        c.rgb = rgb;
+        c.alpha = alpha;
+        return c;
+    }
+
+    @Override
+    public int getTransparency() { return Transparency.TRANSLUCENT; }
+
+    private static final class Context implements PaintContext {
+        double hx, hy, stepX, stepY;
+        int rgb, alpha;
+        private WritableRaster raster;
+        private int[] pixels;
+
+        @Override
+        public Raster getRaster(int x, int y, int w, int h) {
+            if (raster == null || raster.getWidth() < w || raster.getHeight() < h) {
+                int rw = Math.max(w, raster == null ? 0 : raster.getWidth());
+                int rh = Math.max(h, raster == null ? 0 : raster.getHeight());
+                raster = ARGB.createCompatibleWritableRaster(rw, rh);
+                pixels = ((DataBufferInt) raster.getDataBuffer()).getData();
+            }
+            int stride = raster.getWidth();
+            for (int j = 0; j < h; j++) {
+                // pixel centers
+                double t = (x + 0.5 - hx) * stepX + (y + j + 0.5 - hy) * stepY;
+                int o = j * stride;
+                for (int i = 0; i < w; i++, t += stepX) {
+                    double k = t <= 0 ? 1 : t >= 1 ? 0 : 1 - t;
+                    pixels[o + i] = (int) (alpha * k + 0.5) << 24 | rgb;
+                }
+            }
+            return raster;
+        }
+
+        @Override
+        public ColorModel getColorModel() { return ARGB; }
+
+        @Override
+        public void dispose() {}
+    }
+}
@@ -0,0 +1,46 @@
+package pong;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands the newest of a stream of objects from one writer thread to one
+ * reader thread without either side ever waiting. Three preallocated slots:
+ * the writer fills its back slot and publishes it by swapping it with the
+ * middle one, the reader takes the middle one in exchange for its front slot
+ * when something new was published. Each hand-off is a single atomic swap
+ * of a slot index (plus a "fresh" bit); slots are reused, nothing is
+ * allocated after construction.
+ *
+ * The reader always gets the latest complete slot; slots the writer
+ * publishes faster than the reader takes them are overwritten.
+ */
+final class TripleBuffer<T> {
+
+    private static final int INDEX = 3;
+    private static final int FRESH = 4;
+
+    private final T[] slots;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   // writer only
+    private int front = 2;  // reader only
+
+    @SuppressWarnings("unchecked")
+    TripleBuffer(Supplier<T> factory) {
+        slots = (T[]) new Object[] { factory.get(), factory.get(), factory.get() };
+    }
+
+    /** The writer's slot to fill before {@link #publish()}. */
+    T back() { return slots[back]; }
+
+    /** Makes the back slot the latest one; the writer gets a free slot back. */
+    void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /** The latest published slot, or the previous one again if nothing new came in. */
+    T latest() {
+        if ((middle.get() & FRESH) != 0) front = middle.getAndSet(front) & INDEX;
+        return slots[front];
+    }
+}
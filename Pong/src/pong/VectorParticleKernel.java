@@ -0,0 +1,51 @@
+package pong;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD version of the particle kernel (jdk.incubator.vector). Only loaded by
+ * {@link ParticleStress#bestKernel()} when the module is present.
+ */
+final class VectorParticleKernel implements ParticleStress.Kernel {
+
+    private static final VectorSpecies<Float> S = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector " + S.vectorBitSize() + "-bit";
+    }
+
+    @Override
+    public void integrate(float[] x, float[] y, float[] vx, float[] vy, float[] life,
+                          float[] fire, int from, int to, ParticleStress.Step s) {
+        FloatVector vdt = FloatVector.broadcast(S, s.dt);
+        FloatVector decay = FloatVector.broadcast(S, s.decay);
+        FloatVector travel = FloatVector.broadcast(S, s.travel);
+        FloatVector fireDecay = FloatVector.broadcast(S, s.fireDecay);
+        FloatVector fireTravel = FloatVector.broadcast(S, s.fireTravel);
+        FloatVector fireRise = FloatVector.broadcast(S, s.fireRise);
+        int i = from;
+        int upper = from + S.loopBound(to - from);
+
+        for (; i < upper; i += S.length()) {
+            FloatVector w = FloatVector.fromArray(S, fire, i);
+            FloatVector d = w.fma(fireDecay, decay);
+            FloatVector t = w.fma(fireTravel, travel);
+            FloatVector rise = w.mul(fireRise);
+
+            FloatVector pvx = FloatVector.fromArray(S, vx, i);
+            FloatVector rel = FloatVector.fromArray(S, vy, i).sub(rise);
+
+            pvx.fma(t, FloatVector.fromArray(S, x, i)).intoArray(x, i);
+            rel.fma(t, rise.fma(vdt, FloatVector.fromArray(S, y, i))).intoArray(y, i);
+
+            pvx.mul(d).intoArray(vx, i);
+            rel.fma(d, rise).intoArray(vy, i);
+
+            FloatVector.fromArray(S, life, i).sub(vdt).intoArray(life, i);
+        }
+
+        ParticleStress.SCALAR.integrate(x, y, vx, vy, life, fire, i, to, s);
+    }
+}
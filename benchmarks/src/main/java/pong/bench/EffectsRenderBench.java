@@ -0,0 +1,78 @@
+package pong.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import pong.FireTrail;
+import pong.GameRandom;
+import pong.SoftwareRasterizer;
+import pong.StarField;
+
+/**
+ * The effect layers (stars + particles) drawn one frame at a time with the
+ * Java2D renderer and with the tiled {@link SoftwareRasterizer}, at a few
+ * particle counts. The software path includes compositing its layer into
+ * the target image, so both produce the same finished frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class EffectsRenderBench {
+
+    private static final int W = 1280, H = 720;
+
+    @Param({ "1000", "10000", "50000" })
+    int particles;
+
+    private StarField stars;
+    private FireTrail trail;
+    private SoftwareRasterizer raster;
+    private BufferedImage image;
+    private Graphics2D g2;
+
+    @Setup
+    public void setup() {
+        stars = new StarField(260, new GameRandom(42));
+        stars.update(1 / 60.0, W, H);
+
+        trail = new FireTrail(particles);
+        for (int i = 0; trail.count() < particles; i++) {
+            double x = 100 + (i * 37) % 1080;
+            double y = 100 + (i * 53) % 520;
+            if (i % 4 == 0) trail.emitExplosion(x, y, 70);
+            else trail.emitFire(x, y, 1020, 300, 4);
+        }
+
+        raster = new SoftwareRasterizer();
+        image = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    @TearDown
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage java2d() {
+        stars.draw(g2);
+        trail.draw(g2);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage software() {
+        raster.begin(W, H);
+        stars.raster(raster);
+        trail.raster(raster);
+        g2.drawImage(raster.finish(), 0, 0, null);
+        return image;
+    }
+}
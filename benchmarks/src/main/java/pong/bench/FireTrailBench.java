@@ -0,0 +1,61 @@
+package pong.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import pong.FireTrail;
+
+/**
+ * FireTrail update/draw at a fixed live particle count. update runs with
+ * dt = 0 so nothing dies and the count stays at {@code particles}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FireTrailBench {
+
+    @Param({ "100", "1000", "10000" })
+    int particles;
+
+    private FireTrail trail;
+    private BufferedImage image;
+    private Graphics2D g2;
+
+    @Setup
+    public void setup() {
+        trail = new FireTrail(particles);
+        for (int i = 0; trail.count() < particles; i++) {
+            double x = 100 + (i * 37) % 1080;
+            double y = 100 + (i * 53) % 520;
+            if (i % 4 == 0) trail.emitExplosion(x, y, 70);
+            else trail.emitFire(x, y, 1020, 300, 4);
+        }
+
+        image = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    @TearDown
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public int update() {
+        trail.update(0);
+        return trail.count();
+    }
+
+    @Benchmark
+    public BufferedImage draw() {
+        trail.draw(g2);
+        return image;
+    }
+}
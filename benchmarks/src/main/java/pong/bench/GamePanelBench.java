@@ -0,0 +1,71 @@
+package pong.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import pong.GamePanel;
+
+/**
+ * A full GamePanel tick (simulation plus effects) and a full paint into a
+ * headless image. The loop thread is never started, ticks are driven here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GamePanelBench {
+
+    private static final double DT = 1 / 60.0;
+
+    @Param({ "1280x720", "1920x1080" })
+    String size;
+
+    private GamePanel panel;
+    private BufferedImage image;
+    private Graphics2D g2;
+
+    @Setup
+    public void setup() {
+        String[] wh = size.split("x");
+        int w = Integer.parseInt(wh[0]);
+        int h = Integer.parseInt(wh[1]);
+
+        panel = new GamePanel();
+        panel.setSize(w, h);
+
+        // get into a rally with particles and stars alive
+        for (int i = 0; i < 600; i++) panel.step(DT);
+
+        image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public GamePanel tick() {
+        panel.step(DT);
+        return panel;
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        panel.paint(g2);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage tickAndPaint() {
+        panel.step(DT);
+        panel.paint(g2);
+        return image;
+    }
+}
@@ -0,0 +1,51 @@
+package pong.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import pong.MultiBall;
+import pong.PongSimulation;
+
+/**
+ * One multi-ball simulation step (movement, paddles, scoring and ball-ball
+ * collisions) with the uniform grid vs testing all pairs. The grid should
+ * grow about linearly with the ball count, brute force quadratically.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MultiBallBench {
+
+    private static final double DT = 1 / 60.0;
+
+    @Param({ "100", "1000", "10000" })
+    int balls;
+
+    @Param({ "grid", "brute" })
+    String broadPhase;
+
+    private PongSimulation sim;
+
+    @Setup
+    public void setup() {
+        MultiBall set = new MultiBall(balls, MultiBall.defaultSize(balls));
+        set.setBroadPhase(broadPhase.equals("grid") ? MultiBall.GRID : MultiBall.BRUTE_FORCE);
+
+        sim = new PongSimulation(1);
+        sim.setBalls(set);
+        sim.resize(1280, 720);
+
+        // spread out and let the first contacts settle
+        for (int i = 0; i < 60; i++) sim.step(DT, 0);
+    }
+
+    @Benchmark
+    public int step() {
+        sim.step(DT, PongSimulation.LEFT_UP | PongSimulation.RIGHT_DOWN);
+        return sim.balls().collisions();
+    }
+}
@@ -0,0 +1,29 @@
+package pong.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import pong.GameRandom;
+import pong.OrbitStar;
+
+/** Generating a full set of stars, which StarField does on every resize. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OrbitStarBench {
+
+    @Param({ "260", "1000", "5000" })
+    int stars;
+
+    private final GameRandom rnd = new GameRandom(42);
+
+    @Benchmark
+    public void random(Blackhole bh) {
+        for (int i = 0; i < stars; i++) bh.consume(OrbitStar.random(1280, 720, rnd));
+    }
+}
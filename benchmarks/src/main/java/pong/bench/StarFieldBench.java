@@ -0,0 +1,64 @@
+package pong.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import pong.StarField;
+
+/**
+ * StarField update/draw into an offscreen image, in both the layered and the
+ * per-star mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class StarFieldBench {
+
+    private static final int W = 1280;
+    private static final int H = 720;
+
+    @Param({ "260", "1000", "5000" })
+    int stars;
+
+    @Param({ "true", "false" })
+    boolean layered;
+
+    private StarField field;
+    private BufferedImage image;
+    private Graphics2D g2;
+
+    @Setup
+    public void setup() {
+        field = new StarField(stars);
+        field.setLayered(layered);
+        field.update(1 / 60.0, W, H);
+
+        image = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        field.draw(g2); // builds the layers outside the measurement
+    }
+
+    @TearDown
+    public void tearDown() {
+        g2.dispose();
+    }
+
+    @Benchmark
+    public StarField update() {
+        field.update(1 / 60.0, W, H);
+        return field;
+    }
+
+    @Benchmark
+    public BufferedImage draw() {
+        field.draw(g2);
+        return image;
+    }
+}